@@ -45,7 +45,7 @@ import java.security.SecureRandom;
 
 import de.vanitasvitae.enigmandroid.enigma.Enigma;
 import de.vanitasvitae.enigmandroid.enigma.EnigmaStateBundle;
-import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+import de.vanitasvitae.enigmandroid.layout.LampBoardDialogBuilder;
 import de.vanitasvitae.enigmandroid.layout.LayoutContainer;
 import de.vanitasvitae.enigmandroid.layout.PassphraseDialogBuilder;
 
@@ -54,9 +54,9 @@ public class MainActivity extends Activity
 	private static final int RESULT_SETTINGS = 1;
 	private static final String URI_CHANGELOG =
 			"https://github.com/vanitasvitae/EnigmAndroid/blob/master/CHANGELOG.txt";
-	public static final String APP_ID = "EnigmAndroid";
-	public static final int latest_protocol_version = 1;
-	public static final int max_protocol_version = 256;
+	public static final String APP_ID = Enigma.APP_ID;
+	public static final int latest_protocol_version = Enigma.latest_protocol_version;
+	public static final int max_protocol_version = Enigma.max_protocol_version;
 
 	private LayoutContainer layoutContainer;
 
@@ -100,7 +100,9 @@ public class MainActivity extends Activity
 
 	public void onDialogFinished(EnigmaStateBundle state)
 	{
+		layoutContainer.cancelCrypto();
 		layoutContainer.getEnigma().setState(state);
+		layoutContainer.stateChanged();
 	}
 
 	@Override
@@ -119,6 +121,7 @@ public class MainActivity extends Activity
 		int id = item.getItemId();
 		if (id == R.id.action_reset)
 		{
+			layoutContainer.cancelCrypto();
 			layoutContainer.resetLayout();
 			Toast.makeText(getApplicationContext(), R.string.message_reset,
 					Toast.LENGTH_SHORT).show();
@@ -139,6 +142,19 @@ public class MainActivity extends Activity
 				startActivity(Intent.createChooser(sendIntent, getResources().getText(R.string.send_to)));
 			}
 		}
+		else if (id == R.id.action_lamp_board)
+		{
+			//The dialog replaces the text fields, so it must not discard a message
+			if(layoutContainer.getInput().getTextLength() != 0)
+			{
+				Toast.makeText(this, R.string.error_lamp_board_input, Toast.LENGTH_SHORT).show();
+			}
+			else
+			{
+				new LampBoardDialogBuilder(layoutContainer).showDialog();
+			}
+			return true;
+		}
 		else if (id == R.id.action_choose_ringsetting)
 		{
 			layoutContainer.showRingSettingsDialog();
@@ -155,7 +171,8 @@ public class MainActivity extends Activity
 		}
 		else if (id == R.id.action_random_configuration)
 		{
-			layoutContainer.getEnigma().randomState();
+			layoutContainer.cancelCrypto();
+			layoutContainer.getEnigma().randomState(getSecureRandom());
 			layoutContainer.syncStateFromEnigmaToLayout();
 			Toast.makeText(getApplicationContext(), R.string.message_random,
 					Toast.LENGTH_SHORT).show();
@@ -177,8 +194,8 @@ public class MainActivity extends Activity
 
 	/**
 	 * Set the chosen Configuration to the enigma, get the input string from the input text box and
-	 * prepare it, set the input to the prepared text, encrypt the prepared input and set the
-	 * encrypted string to the output text box and update the spinners to their new positions.
+	 * prepare and encrypt it in the background. Once done, set the input to the prepared text, set
+	 * the encrypted string to the output text box and update the spinners to their new positions.
 	 * @param v View
 	 */
 	public void doCrypto(View v)
@@ -399,6 +416,7 @@ public class MainActivity extends Activity
 		SettingsActivity s = SettingsActivity.SettingsSingleton.getInstance();
 		if(s.prefMachineTypeChanged())
 		{
+			layoutContainer.cancelCrypto();
 			layoutContainer = LayoutContainer.createLayoutContainer();
 		}
 		if(s.prefMessageFormattingChanged())
@@ -407,7 +425,11 @@ public class MainActivity extends Activity
 		}
 		if(s.prefNumericLanguageChanged())
 		{
-			layoutContainer.setInputPreparer(InputPreparer.createInputPreparer());
+			layoutContainer.setInputPreparer(s.createInputPreparer());
+		}
+		if(s.prefLiveEncryptionChanged())
+		{
+			layoutContainer.setLiveEncryption(s.getPrefLiveEncryption());
 		}
 	}
 
@@ -432,9 +454,10 @@ public class MainActivity extends Activity
 					"Try to restore configuration from BigInteger value "+s.toString()+" in protocol version "+protocol_version+".");
 			SettingsActivity.SettingsSingleton.getInstance()
 					.setPrefMachineType(Enigma.chooseEnigmaFromSave(s));
+			layoutContainer.cancelCrypto();
 			layoutContainer = LayoutContainer.createLayoutContainer();
 			layoutContainer.getEnigma().restoreState(Enigma.removeDigit(s,20), protocol_version);
-			layoutContainer.setInputPreparer(InputPreparer.createInputPreparer());
+			layoutContainer.setInputPreparer(SettingsActivity.SettingsSingleton.getInstance().createInputPreparer());
 			layoutContainer.syncStateFromEnigmaToLayout();
 			layoutContainer.getInput().setText(inputString);
 			layoutContainer.getOutput().setText("");
@@ -450,9 +473,10 @@ public class MainActivity extends Activity
 		String inputString = layoutContainer.getInput().getText();
 		SettingsActivity.SettingsSingleton.getInstance()
 				.setPrefMachineType(Enigma.chooseEnigmaFromSeed(seed));
+		layoutContainer.cancelCrypto();
 		layoutContainer = LayoutContainer.createLayoutContainer();
 		layoutContainer.getEnigma().setStateFromSeed(seed);
-		layoutContainer.setInputPreparer(InputPreparer.createInputPreparer());
+		layoutContainer.setInputPreparer(SettingsActivity.SettingsSingleton.getInstance().createInputPreparer());
 		layoutContainer.syncStateFromEnigmaToLayout();
 		layoutContainer.getInput().setText(inputString);
 		layoutContainer.getOutput().setText("");
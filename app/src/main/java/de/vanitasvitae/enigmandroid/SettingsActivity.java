@@ -20,6 +20,8 @@ import android.os.Bundle;
 import android.preference.PreferenceActivity;
 import android.util.Log;
 
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
 /**
  * Class that represents the settings activity.
  * Use the singleton to get an instance of this class to get preferences
@@ -32,12 +34,14 @@ public class SettingsActivity extends PreferenceActivity
 	public static final String PREF_REPLACE_SPECIAL_CHARACTERS = "prefReplaceSpecialCharacters";
 	public static final String PREF_SAVED_ENIGMA_STATE = "prefSavedEnigmaState";
 	public static final String PREF_VERSION_NUMBER = "prefVersionNumber";
+	public static final String PREF_LIVE_ENCRYPTION = "prefLiveEncryption";
 
 	private String previousPrefNumericLanguage;
 	private String previousPrefMachineType;
 	private String previousPrefMessageFormatting;
 	private boolean previousPrefReplaceSpecialCharacters;
 	private String previousPrefSavedEnigmaState;
+	private boolean previousPrefLiveEncryption;
 
 	private SharedPreferences prefs;
 	private Resources res;
@@ -131,6 +135,22 @@ public class SettingsActivity extends PreferenceActivity
 		return false;
 	}
 
+	/**
+	 * Create an InputPreparer that matches the numeric language and special character
+	 * preferences.
+	 * If the SettingsActivity is not fully initialized, only replace special characters.
+	 * @return InputPreparer
+	 */
+	public InputPreparer createInputPreparer()
+	{
+		if (!isFullyInitialized())
+			return InputPreparer.createInputPreparer(true, null);
+		return InputPreparer.createInputPreparer(
+				prefs.getBoolean(PREF_REPLACE_SPECIAL_CHARACTERS, true),
+				prefs.getString(PREF_NUMERIC_LANGUAGE,
+						res.getStringArray(R.array.pref_alias_numeric_spelling_language)[0]));
+	}
+
 	public String getPrefMachineType()
 	{
 		if (isFullyInitialized())
@@ -211,6 +231,28 @@ public class SettingsActivity extends PreferenceActivity
 		return false;
 	}
 
+	/**
+	 * Return whether the input gets encrypted while it is typed.
+	 * If the SettingsActivity is not fully initialized return false and ignore preference.
+	 * @return boolean
+	 */
+	public boolean getPrefLiveEncryption()
+	{
+		return isFullyInitialized() && prefs.getBoolean(PREF_LIVE_ENCRYPTION, false);
+	}
+
+	public boolean prefLiveEncryptionChanged()
+	{
+		boolean changed = previousPrefLiveEncryption != getPrefLiveEncryption();
+		if (changed)
+		{
+			previousPrefLiveEncryption = getPrefLiveEncryption();
+			Log.d(MainActivity.APP_ID, PREF_LIVE_ENCRYPTION+" changed!");
+			return true;
+		}
+		return false;
+	}
+
 	public int getVersionNumber()
 	{
 		if (isFullyInitialized())
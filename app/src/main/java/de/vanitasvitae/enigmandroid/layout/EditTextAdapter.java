@@ -0,0 +1,189 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.layout;
+
+import android.text.Editable;
+import android.widget.EditText;
+
+/**
+ * Adapter-like connector between text fields and string-outputting-whatever blah
+ * Use this to modify the way strings get displayed without modifying the string itself.
+ */
+public abstract class EditTextAdapter
+{
+    EditText editText;
+    final StringBuilder content = new StringBuilder();
+
+    EditTextAdapter(EditText editText)
+    {
+        this.editText = editText;
+    }
+
+    /**
+     * Returns the unmodified text
+     * @return content
+     */
+    public String getText()
+    {
+        if(editText.getText().length() == 0) content.setLength(0);
+        return content.toString();
+    }
+
+    /**
+     * Returns the length of the unmodified text without copying it
+     * @return length of content
+     */
+    public int getTextLength()
+    {
+        if(editText.getText().length() == 0) content.setLength(0);
+        return content.length();
+    }
+
+    public String getModifiedText()
+    {
+        return editText.getText().toString();
+    }
+
+    /**
+     * Set the text to both the content and the editText without modifying it
+     * @param text text
+     */
+    public void setRawText(String text)
+    {
+        this.content.setLength(0);
+        this.content.append(text);
+        this.editText.setText(text);
+    }
+
+    /**
+     * Append text to the content and the modified text to the editText.
+     * Only the appended part gets formatted, so this takes time proportional to text only.
+     * @param text text
+     */
+    public void appendText(CharSequence text)
+    {
+        int from = getModifiedLength(content.length());
+        content.append(text);
+        Editable editable = editText.getText();
+        editable.replace(from, editable.length(),
+                getModifiedText(content, from, getModifiedLength(content.length())));
+    }
+
+    /**
+     * Shorten the content to its first length chars and update the editText accordingly.
+     * @param length new length of the content
+     */
+    public void truncateText(int length)
+    {
+        content.setLength(length);
+        Editable editable = editText.getText();
+        editable.delete(getModifiedLength(length), editable.length());
+    }
+
+    /**
+     * Return the length of the modified version of a text of length length
+     * @param length length of the unmodified text
+     * @return length of the modified text
+     */
+    abstract int getModifiedLength(int length);
+
+    /**
+     * Return the chars from start to end of the modified version of text
+     * @param text unmodified text
+     * @param start start index in the modified text
+     * @param end end index in the modified text
+     * @return part of the modified text
+     */
+    abstract CharSequence getModifiedText(CharSequence text, int start, int end);
+
+    /**
+     * This method needs to be overwritten by the programmer.
+     * The coder has to make sure, content gets set to text and also that the editText element
+     * gets updated with the modified text
+     * @param text text
+     */
+    public abstract void setText(String text);
+
+    public static EditTextAdapter createEditTextAdapter(EditText editText, String type)
+    {
+        switch (type)
+        {
+            case "4": return new EditTextAdapterGap(editText, 4);
+            case "5": return new EditTextAdapterGap(editText, 5);
+            case "6": return new EditTextAdapterGap(editText, 6);
+            case "no": return new EditTextAdapterNoGap(editText);
+            default: return new EditTextAdapterNoGap(editText);
+        }
+    }
+
+    public static class EditTextAdapterNoGap extends  EditTextAdapter
+    {
+        public EditTextAdapterNoGap(EditText editText)
+        {
+            super(editText);
+        }
+
+        @Override
+        public void setText(String text)
+        {
+            this.content.setLength(0);
+            this.content.append(text);
+            this.editText.setText(text);
+        }
+
+        @Override
+        int getModifiedLength(int length)
+        {
+            return length;
+        }
+
+        @Override
+        CharSequence getModifiedText(CharSequence text, int start, int end)
+        {
+            return text.subSequence(start, end);
+        }
+    }
+
+    public static class EditTextAdapterGap extends EditTextAdapter
+    {
+        int blockSize;
+        public EditTextAdapterGap(EditText editText, int blockSize)
+        {
+            super(editText);
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        public void setText(String text)
+        {
+            this.content.setLength(0);
+            this.content.append(text);
+            this.editText.setText(new GroupedText(text, blockSize));
+        }
+
+        @Override
+        int getModifiedLength(int length)
+        {
+            return length + length / blockSize;
+        }
+
+        @Override
+        CharSequence getModifiedText(CharSequence text, int start, int end)
+        {
+            return new GroupedText(text, blockSize).subSequence(start, end);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.layout;
+
+import android.text.GetChars;
+
+/**
+ * Read-only view of a text that is split into blocks of blockSize chars.
+ * Every full block is followed by a space, eg. "ABCDEFGHIJ" with blockSize 4 reads as
+ * "ABCD EFGH IJ". The spaces are inserted on the fly, so the text itself never gets copied.
+ * Implementing GetChars allows the EditText to copy the view into its buffer in one pass.
+ */
+public final class GroupedText implements GetChars
+{
+    private final CharSequence text;
+    private final int blockSize;
+
+    public GroupedText(CharSequence text, int blockSize)
+    {
+        if(blockSize < 1) throw new IllegalArgumentException("Block size must be positive: "+blockSize);
+        this.text = text;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public int length()
+    {
+        return text.length() + text.length() / blockSize;
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        if(index < 0 || index >= length()) throw new IndexOutOfBoundsException("Index: "+index);
+        int block = index / (blockSize + 1);
+        int offset = index % (blockSize + 1);
+        if(offset == blockSize) return ' ';
+        return text.charAt(block * blockSize + offset);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end)
+    {
+        char[] out = new char[end - start];
+        getChars(start, end, out, 0);
+        return new String(out);
+    }
+
+    @Override
+    public void getChars(int start, int end, char[] dest, int destoff)
+    {
+        if(start < 0 || end > length() || start > end)
+            throw new IndexOutOfBoundsException("start: "+start+" end: "+end);
+        int block = start / (blockSize + 1);
+        int offset = start % (blockSize + 1);
+        int src = block * blockSize + offset;
+        for(int i=start; i<end; i++)
+        {
+            if(offset == blockSize)
+            {
+                dest[destoff++] = ' ';
+                offset = 0;
+            }
+            else
+            {
+                dest[destoff++] = text.charAt(src++);
+                offset++;
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return (String) subSequence(0, length());
+    }
+}
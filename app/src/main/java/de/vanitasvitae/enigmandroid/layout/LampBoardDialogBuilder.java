@@ -0,0 +1,235 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.layout;
+
+import android.app.AlertDialog;
+import android.app.Dialog;
+import android.content.DialogInterface;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import de.vanitasvitae.enigmandroid.MainActivity;
+import de.vanitasvitae.enigmandroid.R;
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaConfig;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaCursor;
+
+/**
+ * Builder for the lamp board dialog. The dialog shows the rotor windows, the lamps and the
+ * keyboard of the machine. Every key press encrypts exactly one char and lights up the lamp of
+ * the encrypted char, just like on the real machine.
+ * Keys are encrypted by an EnigmaCursor on the compiled configuration of the enigma, so pressing
+ * a key does not allocate any objects and only the rotor windows that moved get updated. The
+ * enigma, the spinners and the text fields of the layout are only updated once, when the
+ * dialog gets closed. The typed text replaces the text fields, so the dialog is only offered
+ * while the input is empty.
+ */
+public class LampBoardDialogBuilder
+{
+    private static final String[] ROWS = {"QWERTZUIO", "ASDFGHJK", "PYXCVBNML"};
+    private static final String[] LETTERS = new String[26];
+    static
+    {
+        for(int i=0; i<LETTERS.length; i++) LETTERS[i] = String.valueOf((char) ('A' + i));
+    }
+
+    private static final int LAMP_OFF = Color.DKGRAY;
+    private static final int LAMP_ON = Color.YELLOW;
+
+    private final MainActivity main;
+    private final LayoutContainer container;
+    /** Copy of the enigma in the state before the first key press */
+    private final Enigma start;
+    private final EnigmaCursor cursor;
+    private final int rotorCount;
+
+    private final TextView[] lamps = new TextView[26];
+    /** Rotor windows, rotor1 first. If the reflector is rotatable, its window comes last */
+    private final TextView[] windows;
+    private final int[] shownRotations;
+    private int litLamp = -1;
+
+    private final StringBuilder typed = new StringBuilder(1024);
+    private final StringBuilder lit = new StringBuilder(1024);
+
+    private final View.OnClickListener keyListener = new View.OnClickListener()
+    {
+        @Override
+        public void onClick(View v)
+        {
+            pressKey((Integer) v.getTag());
+        }
+    };
+
+    public LampBoardDialogBuilder(LayoutContainer container)
+    {
+        this.main = (MainActivity) MainActivity.ActivitySingleton.getInstance().getActivity();
+        this.container = container;
+        container.cancelCrypto();
+        container.syncStateFromLayoutToEnigma();
+        this.start = container.getEnigma().copy();
+        EnigmaConfig config = container.getEnigma().getConfig();
+        this.cursor = config.createCursor();
+        this.rotorCount = config.getRotorCount();
+        int windowCount = rotorCount + (config.hasRotatableReflector() ? 1 : 0);
+        this.windows = new TextView[windowCount];
+        this.shownRotations = new int[windowCount];
+    }
+
+    /**
+     * create and show the dialog
+     */
+    public void showDialog()
+    {
+        AlertDialog.Builder builder = new AlertDialog.Builder(main);
+        builder.setTitle(R.string.action_lamp_board);
+        Dialog d = builder.setView(createView())
+                .setCancelable(true)
+                .setPositiveButton(R.string.dialog_positive, null)
+                .create();
+        d.setOnDismissListener(new DialogInterface.OnDismissListener()
+        {
+            @Override
+            public void onDismiss(DialogInterface dialog)
+            {
+                finish();
+            }
+        });
+        d.show();
+    }
+
+    private View createView()
+    {
+        LinearLayout board = new LinearLayout(main);
+        board.setOrientation(LinearLayout.VERTICAL);
+
+        //Windows are shown from left to right like on the machine: reflector, rotorN .. rotor1
+        LinearLayout windowRow = createRow();
+        for(int i=windows.length-1; i>=0; i--)
+        {
+            windows[i] = createCell(Color.WHITE);
+            windows[i].setTypeface(Typeface.MONOSPACE, Typeface.BOLD);
+            windowRow.addView(windows[i]);
+        }
+        board.addView(windowRow);
+        updateWindows(true);
+
+        for(String row : ROWS)
+        {
+            LinearLayout lampRow = createRow();
+            for(int i=0; i<row.length(); i++)
+            {
+                int letter = row.charAt(i) - 'A';
+                lamps[letter] = createCell(LAMP_OFF);
+                lamps[letter].setText(LETTERS[letter]);
+                lampRow.addView(lamps[letter]);
+            }
+            board.addView(lampRow);
+        }
+
+        for(String row : ROWS)
+        {
+            LinearLayout keyRow = createRow();
+            for(int i=0; i<row.length(); i++)
+            {
+                int letter = row.charAt(i) - 'A';
+                Button key = new Button(main);
+                key.setText(LETTERS[letter]);
+                key.setTag(letter);
+                key.setMinWidth(0);
+                key.setMinimumWidth(0);
+                key.setPadding(0, 0, 0, 0);
+                key.setOnClickListener(keyListener);
+                keyRow.addView(key, new LinearLayout.LayoutParams(
+                        0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
+            }
+            board.addView(keyRow);
+        }
+        return board;
+    }
+
+    private LinearLayout createRow()
+    {
+        LinearLayout row = new LinearLayout(main);
+        row.setOrientation(LinearLayout.HORIZONTAL);
+        row.setGravity(Gravity.CENTER_HORIZONTAL);
+        return row;
+    }
+
+    private TextView createCell(int background)
+    {
+        TextView cell = new TextView(main);
+        cell.setGravity(Gravity.CENTER);
+        cell.setTextColor(Color.BLACK);
+        cell.setTextSize(TypedValue.COMPLEX_UNIT_SP, 20);
+        int padding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 6,
+                main.getResources().getDisplayMetrics());
+        cell.setPadding(padding, padding, padding, padding);
+        //Set a ColorDrawable once, so that later color changes don't create new drawables
+        cell.setBackgroundColor(background);
+        return cell;
+    }
+
+    /**
+     * Encrypt a single char, light up the lamp of the result and advance the rotor windows.
+     * @param letter pressed key (0 for A)
+     */
+    private void pressKey(int letter)
+    {
+        char encrypted = cursor.encryptChar((char) ('A' + letter));
+        typed.append((char) ('A' + letter));
+        lit.append(encrypted);
+        if(litLamp != -1) lamps[litLamp].setBackgroundColor(LAMP_OFF);
+        litLamp = encrypted - 'A';
+        lamps[litLamp].setBackgroundColor(LAMP_ON);
+        updateWindows(false);
+    }
+
+    /**
+     * Show the current rotations in the rotor windows.
+     * @param all update all windows, otherwise only the ones whose rotation changed
+     */
+    private void updateWindows(boolean all)
+    {
+        for(int i=0; i<windows.length; i++)
+        {
+            int rotation = i < rotorCount ? cursor.getRotation(i) : cursor.getReflectorRotation();
+            if(all || rotation != shownRotations[i])
+            {
+                shownRotations[i] = rotation;
+                windows[i].setText(LETTERS[rotation]);
+            }
+        }
+    }
+
+    /**
+     * Apply the position of the cursor to the enigma and the layout and show the typed and the
+     * encrypted text in the text fields. Live encryption continues the typed text.
+     */
+    private void finish()
+    {
+        if(typed.length() == 0) return;
+        container.getEnigma().setPackedState(cursor.getState());
+        container.syncStateFromEnigmaToLayout();
+        container.showEncryptedMessage(typed.toString(), lit.toString(), start);
+    }
+}
@@ -14,16 +14,20 @@
  */
 package de.vanitasvitae.enigmandroid.layout;
 
+import android.os.AsyncTask;
+import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.EditText;
 import android.widget.Spinner;
 
+import java.math.BigInteger;
+
 import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.R;
 import de.vanitasvitae.enigmandroid.SettingsActivity;
 import de.vanitasvitae.enigmandroid.enigma.Enigma;
 import de.vanitasvitae.enigmandroid.enigma.EnigmaStateBundle;
-import de.vanitasvitae.enigmandroid.enigma.inputPreparer.EditTextAdapter;
 import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
 
 /**
@@ -33,6 +37,9 @@ import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
  */
 public abstract class LayoutContainer
 {
+	/** Number of chars that get encrypted between two checks for cancellation */
+	private static final int CRYPTO_CHUNK_SIZE = 8192;
+
 	final EditText inputView;
 	private final EditText outputView;
 
@@ -42,6 +49,23 @@ public abstract class LayoutContainer
 	InputPreparer inputPreparer;
 	final MainActivity main;
 
+	private CryptoTask cryptoTask;
+	private LiveCrypto liveCrypto;
+
+	private final AdapterView.OnItemSelectedListener spinnerListener = new AdapterView.OnItemSelectedListener()
+	{
+		@Override
+		public void onItemSelected(AdapterView<?> parent, View view, int position, long id)
+		{
+			stateChanged();
+		}
+
+		@Override
+		public void onNothingSelected(AdapterView<?> parent)
+		{
+		}
+	};
+
 	public abstract Enigma getEnigma();
 	protected abstract void assembleLayout();
 	public abstract void resetLayout();
@@ -50,6 +74,7 @@ public abstract class LayoutContainer
 	public void syncStateFromEnigmaToLayout()
 	{
 		this.setLayoutState(getEnigma().getState());
+		stateChanged();
 	}
 	public abstract void showRingSettingsDialog();
 
@@ -63,9 +88,10 @@ public abstract class LayoutContainer
 						SettingsActivity.SettingsSingleton.getInstance().getPrefMessageFormatting());
 		output = EditTextAdapter.createEditTextAdapter(outputView,
 						SettingsActivity.SettingsSingleton.getInstance().getPrefMessageFormatting());
-		inputPreparer = InputPreparer.createInputPreparer();
+		inputPreparer = SettingsActivity.SettingsSingleton.getInstance().createInputPreparer();
 		assembleLayout();
 		finishLayout();
+		setLiveEncryption(SettingsActivity.SettingsSingleton.getInstance().getPrefLiveEncryption());
 	}
 
 	public void doCrypto()
@@ -73,11 +99,64 @@ public abstract class LayoutContainer
 		if(inputView.getText().length()!=0)
 		{
 			syncStateFromLayoutToEnigma();
-			String message = inputView.getText().toString();
-			message = inputPreparer.prepareString(message);
-			input.setText(message);
-			output.setText(getEnigma().encryptString(message));
-			setLayoutState(getEnigma().getState());
+			startCrypto(inputView.getText().toString());
+		}
+	}
+
+	/**
+	 * Prepare and encrypt message in the background, starting at the current state of the enigma.
+	 * The enigma and the layout only get advanced once the whole message is encrypted.
+	 * A task that is still running gets cancelled and its result is discarded. The result is
+	 * discarded as well, if the state of the layout or the input got changed in the meantime.
+	 * @param message raw message, as it is shown in the input
+	 */
+	void startCrypto(String message)
+	{
+		cancelCrypto();
+		output.setText("");
+		cryptoTask = new CryptoTask(getEnigma(), inputPreparer, message);
+		cryptoTask.execute();
+	}
+
+	/**
+	 * Cancel the encryption that is currently running, if any.
+	 * The state of the enigma and the layout stays untouched.
+	 */
+	public void cancelCrypto()
+	{
+		if(cryptoTask != null)
+		{
+			cryptoTask.cancel(false);
+			cryptoTask = null;
+			outputView.setHint(R.string.hint_enigma_code);
+		}
+	}
+
+	/**
+	 * Tell the live encryption, that the state of the layout or the enigma might have changed.
+	 */
+	public void stateChanged()
+	{
+		if(liveCrypto != null) liveCrypto.stateChanged();
+	}
+
+	/**
+	 * Show a message and its encryption in the text fields. The enigma and the layout must
+	 * already be in the state behind the message. The live encryption does not encrypt the
+	 * message again, but continues it.
+	 * @param message prepared message
+	 * @param encrypted encrypted message
+	 * @param start copy of the enigma in the state the message was encrypted from
+	 */
+	void showEncryptedMessage(String message, String encrypted, Enigma start)
+	{
+		if(liveCrypto != null) inputView.removeTextChangedListener(liveCrypto);
+		input.setText(message);
+		output.setText(encrypted);
+		if(liveCrypto != null)
+		{
+			inputView.addTextChangedListener(liveCrypto);
+			liveCrypto.restart(start, message.length());
 		}
 	}
 
@@ -145,6 +224,7 @@ public abstract class LayoutContainer
 		ad.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
 		ad.setDropDownViewTheme(main.getTheme());
 		view.setAdapter(ad);
+		view.setOnItemSelectedListener(spinnerListener);
 	}
 
 	/**
@@ -161,6 +241,7 @@ public abstract class LayoutContainer
 				android.R.layout.simple_spinner_dropdown_item);
 		adapter.setDropDownViewTheme(main.getTheme());
 		view.setAdapter(adapter);
+		view.setOnItemSelectedListener(spinnerListener);
 	}
 
 	public void setInputPreparer(InputPreparer inputPreparer)
@@ -168,6 +249,25 @@ public abstract class LayoutContainer
 		this.inputPreparer = inputPreparer;
 	}
 
+	/**
+	 * Enable or disable encryption of the input while it is typed
+	 * @param enabled live encryption
+	 */
+	public void setLiveEncryption(boolean enabled)
+	{
+		if(enabled && liveCrypto == null)
+		{
+			liveCrypto = new LiveCrypto(this);
+			inputView.addTextChangedListener(liveCrypto);
+			if(inputView.getText().length() != 0) liveCrypto.restart(inputView.getText());
+		}
+		else if(!enabled && liveCrypto != null)
+		{
+			inputView.removeTextChangedListener(liveCrypto);
+			liveCrypto = null;
+		}
+	}
+
 	public void setEditTextAdapter(String type)
 	{
 		String in = input.getText();
@@ -185,6 +285,68 @@ public abstract class LayoutContainer
 
 	abstract protected void setEnigmaLayout();
 
+	/**
+	 * Prepares and encrypts a message with its own copy of the enigma, so that the enigma of the
+	 * layout stays untouched until the task finishes.
+	 */
+	private class CryptoTask extends AsyncTask<Void, Integer, String>
+	{
+		private final Enigma start;
+		private final Enigma enigma;
+		private final BigInteger layoutState;
+		private final InputPreparer preparer;
+		private final String message;
+		private String prepared;
+
+		CryptoTask(Enigma enigma, InputPreparer preparer, String message)
+		{
+			this.start = enigma.copy();
+			this.enigma = enigma.copy();
+			this.layoutState = enigma.getEncodedState();
+			this.preparer = preparer;
+			this.message = message;
+		}
+
+		@Override
+		protected String doInBackground(Void... params)
+		{
+			prepared = preparer.prepareString(message);
+			char[] chars = prepared.toCharArray();
+			int progress = -1;
+			for(int off=0; off<chars.length; off+=CRYPTO_CHUNK_SIZE)
+			{
+				if(isCancelled()) return null;
+				int len = Math.min(CRYPTO_CHUNK_SIZE, chars.length - off);
+				enigma.encrypt(chars, off, len, chars, off);
+				int p = (int) ((off + len) * 100L / chars.length);
+				if(p != progress) publishProgress(progress = p);
+			}
+			return new String(chars);
+		}
+
+		@Override
+		protected void onProgressUpdate(Integer... values)
+		{
+			if(cryptoTask == this)
+				outputView.setHint(main.getString(R.string.message_encrypting, values[0]));
+		}
+
+		@Override
+		protected void onPostExecute(String result)
+		{
+			if(cryptoTask != this) return;
+			cryptoTask = null;
+			outputView.setHint(R.string.hint_enigma_code);
+			//Keep what the user changed while the message was encrypted
+			syncStateFromLayoutToEnigma();
+			if(!getEnigma().getEncodedState().equals(layoutState)
+					|| !inputView.getText().toString().equals(message)) return;
+			getEnigma().adoptState(enigma);
+			setLayoutState(getEnigma().getState());
+			showEncryptedMessage(prepared, result, start);
+		}
+	}
+
 	private void finishLayout()
 	{
 		//TODO
@@ -55,13 +55,13 @@ public class LayoutContainer_T extends LayoutContainer
             syncStateFromLayoutToEnigma();
             String message = inputView.getText().toString();
 			//<Insert funny comment here>
-			boolean egg = false;
-			if(message.hashCode() == -1475861192) egg = true;
-			message = inputPreparer.prepareString(message);
-			input.setText(message);
-			if(egg) output.setText("ENIGMA<TURINGMACHINE");
-			else output.setText(getEnigma().encryptString(message));
-			setLayoutState(getEnigma().getState());
+			if(message.hashCode() == -1475861192)
+			{
+				cancelCrypto();
+				input.setText(inputPreparer.prepareString(message));
+				output.setText("ENIGMA<TURINGMACHINE");
+			}
+			else startCrypto(message);
         }
     }
 
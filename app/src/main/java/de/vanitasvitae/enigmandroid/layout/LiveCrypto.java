@@ -0,0 +1,155 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.layout;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+
+import java.math.BigInteger;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * Encrypts the input of a LayoutContainer while it is typed.
+ * The output always shows the whole input encrypted from a start state. Usually that is the state
+ * shown in the layout. After a message got encrypted elsewhere (eg. by the lamp board), the layout
+ * shows the state behind that message and typing continues the message.
+ * Only the part of the input behind the edited position gets prepared and encrypted again. When
+ * chars get removed, the enigma is set back to the state it had before encrypting them. That
+ * state is calculated from the start state via Enigma.advance(), which takes constant time. That
+ * way typing or deleting at the end of a message takes the same time regardless of its length.
+ * The LayoutContainer reports changes of the layout or the enigma via stateChanged(). The state
+ * of the layout is only compared with the state the live encryption started at after such a
+ * report, so a key press does not need to read the spinners. If the state, the input preparer or
+ * the output got changed from elsewhere, the whole input is encrypted again.
+ */
+class LiveCrypto implements TextWatcher
+{
+    private final LayoutContainer container;
+
+    /** Copy of the enigma in the state the output is encrypted from */
+    private Enigma start;
+    /** Copy of the enigma that has encrypted the first position prepared chars */
+    private Enigma current;
+    /** Enigma of the layout and its encoded state, when the live encryption started */
+    private Enigma enigma;
+    private BigInteger layoutState;
+    private InputPreparer preparer;
+    private int position;
+    /** True, if the layout or the enigma might have changed since the live encryption started */
+    private boolean changed;
+
+    /** Number of prepared chars behind the edited position before the edit */
+    private int removedLength;
+
+    LiveCrypto(LayoutContainer container)
+    {
+        this.container = container;
+    }
+
+    /**
+     * Report that the state of the layout or the enigma might have changed.
+     */
+    void stateChanged()
+    {
+        changed = true;
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after)
+    {
+        if(preparer != null)
+            removedLength = preparer.prepareString(s.subSequence(start, s.length()).toString()).length();
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count)
+    {
+        int keep = position - removedLength;
+        if(current == null || preparer != container.inputPreparer || keep < 0
+                || enigma != container.getEnigma()
+                || container.output.getTextLength() != position
+                || (changed && !isLayoutUnchanged()))
+        {
+            restart(s);
+            return;
+        }
+
+        if(keep != position)
+        {
+            current.adoptState(this.start);
+            current.advance(keep);
+        }
+        char[] added = preparer.prepareString(s.subSequence(start, s.length()).toString()).toCharArray();
+        current.encrypt(added, 0, added.length, added, 0);
+        container.output.truncateText(keep);
+        container.output.appendText(new String(added));
+        position = keep + added.length;
+    }
+
+    @Override
+    public void afterTextChanged(Editable s)
+    {
+    }
+
+    /**
+     * Check whether the layout still shows the state the live encryption started at.
+     */
+    private boolean isLayoutUnchanged()
+    {
+        container.syncStateFromLayoutToEnigma();
+        changed = false;
+        return enigma.getEncodedState().equals(layoutState);
+    }
+
+    /**
+     * Encrypt the whole input again, starting at the state shown in the layout.
+     * @param s input
+     */
+    void restart(CharSequence s)
+    {
+        container.syncStateFromLayoutToEnigma();
+        Enigma start = container.getEnigma().copy();
+        current = start.copy();
+        preparer = container.inputPreparer;
+        char[] chars = preparer.prepareString(s.toString()).toCharArray();
+        current.encrypt(chars, 0, chars.length, chars, 0);
+        container.output.setText(new String(chars));
+        continueFrom(start, chars.length);
+    }
+
+    /**
+     * Continue a message that got encrypted elsewhere. The input and the output must already
+     * show the message and the enigma and the layout the state behind it.
+     * @param start copy of the enigma in the state the message was encrypted from
+     * @param length length of the prepared message
+     */
+    void restart(Enigma start, int length)
+    {
+        current = container.getEnigma().copy();
+        preparer = container.inputPreparer;
+        continueFrom(start, length);
+    }
+
+    private void continueFrom(Enigma start, int length)
+    {
+        this.start = start;
+        this.position = length;
+        this.enigma = container.getEnigma();
+        this.layoutState = enigma.getEncodedState();
+        this.changed = false;
+    }
+}
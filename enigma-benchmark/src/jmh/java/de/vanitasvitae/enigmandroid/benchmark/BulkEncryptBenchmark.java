@@ -0,0 +1,68 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+
+/**
+ * Time it takes to encrypt whole messages from 10 chars up to 100 million chars with each of the
+ * encryption engines.
+ * Divide the score by the size to get the time per char. Only the average time is measured, as
+ * the throughput is just its inverse and would double the already long run time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkEncryptBenchmark
+{
+	@Param({"I", "M3", "M4", "D", "K", "KS", "KSA", "R", "T", "KD", "G31", "G312", "G260"})
+	public String machineType;
+
+	@Param({Machines.ENGINE_CLASSIC, Machines.ENGINE_COMPILED, Machines.ENGINE_TABLE})
+	public String engine;
+
+	@Param({"10", "1000", "100000", "10000000", "100000000"})
+	public int size;
+
+	private Enigma enigma;
+	private char[] in;
+	private char[] out;
+
+	@Setup
+	public void setup()
+	{
+		enigma = Machines.createEnigma(machineType, engine);
+		in = Machines.createMessage(size);
+		out = new char[size];
+	}
+
+	@Benchmark
+	public char[] encrypt()
+	{
+		enigma.encrypt(in, 0, size, out, 0);
+		return out;
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+
+/**
+ * Throughput and latency of encrypting a single char (including the stepping of the rotors)
+ * with each of the encryption engines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncryptCharBenchmark
+{
+	@Param({"I", "M3", "M4", "D", "K", "KS", "KSA", "R", "T", "KD", "G31", "G312", "G260"})
+	public String machineType;
+
+	@Param({Machines.ENGINE_CLASSIC, Machines.ENGINE_COMPILED, Machines.ENGINE_TABLE})
+	public String engine;
+
+	private Enigma enigma;
+	private char[] message;
+	private char[] out;
+	private int position;
+
+	@Setup
+	public void setup()
+	{
+		enigma = Machines.createEnigma(machineType, engine);
+		message = Machines.createMessage(1024);
+		out = new char[1];
+		position = 0;
+	}
+
+	@Benchmark
+	public char encryptChar()
+	{
+		enigma.encrypt(message, position, 1, out, 0);
+		position = (position + 1) & (message.length - 1);
+		return out[0];
+	}
+}
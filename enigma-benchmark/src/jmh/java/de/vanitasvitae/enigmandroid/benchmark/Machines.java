@@ -0,0 +1,82 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.benchmark;
+
+import java.util.Random;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.PermutationTable;
+
+/**
+ * Helper that sets up machines and messages for the benchmarks.
+ */
+final class Machines
+{
+	/** Encrypt every char by sending it through the parts */
+	static final String ENGINE_CLASSIC = "classic";
+	/** Encrypt using the compiled tables of CompiledEnigma */
+	static final String ENGINE_COMPILED = "compiled";
+	/** Encrypt using a PermutationTable */
+	static final String ENGINE_TABLE = "table";
+
+	private static final long SEED = 0x656e69676d61L;
+
+	private Machines()
+	{
+	}
+
+	/**
+	 * Create a machine of the given type in a reproducible random state.
+	 * @param machineType type of the machine (see Enigma.getMachineType())
+	 * @param engine one of ENGINE_CLASSIC, ENGINE_COMPILED and ENGINE_TABLE
+	 * @return machine
+	 */
+	static Enigma createEnigma(String machineType, String engine)
+	{
+		Enigma enigma = Enigma.createEnigma(machineType);
+		if (enigma == null)
+			throw new IllegalArgumentException("Unknown machine type " + machineType);
+		enigma.randomState(new Random(SEED));
+		switch (engine)
+		{
+			case ENGINE_CLASSIC:
+				break;
+			case ENGINE_COMPILED:
+				enigma.setUseCompiledTables(true);
+				break;
+			case ENGINE_TABLE:
+				enigma.setPermutationTable(
+						enigma.createPermutationTable(PermutationTable.DEFAULT_MEMORY_BUDGET));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown engine " + engine);
+		}
+		return enigma;
+	}
+
+	/**
+	 * Create a message of random chars in [A..Z].
+	 * @param length length of the message
+	 * @return message
+	 */
+	static char[] createMessage(int length)
+	{
+		Random random = new Random(SEED);
+		char[] message = new char[length];
+		for (int i = 0; i < length; i++)
+			message[i] = (char) ('A' + random.nextInt(26));
+		return message;
+	}
+}
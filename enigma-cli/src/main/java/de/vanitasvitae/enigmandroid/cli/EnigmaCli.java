@@ -0,0 +1,305 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.cli;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+import de.vanitasvitae.enigmandroid.enigma.io.EnigmaReader;
+
+/**
+ * Command line interface of the enigma engine.
+ * Without files, the text read from stdin gets encrypted to stdout. Given files, every file is
+ * encrypted from the same initial state into a file with the suffix ".enigma". Files are
+ * processed concurrently. Statistics are reported on stderr.
+ */
+public class EnigmaCli
+{
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String SUFFIX = ".enigma";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final List<String> LANGUAGES = Arrays.asList("de", "en", "fr", "sp", "it");
+
+	private static final String USAGE =
+			"Usage: enigma (-c CODE | -p PASSPHRASE) [options] [FILE...]\n" +
+			"  -c CODE        machine state as shared by the app (hex, optionally prefixed with "
+					+ Enigma.APP_ID + "/)\n" +
+			"  -p PASSPHRASE  derive machine type and state from a passphrase\n" +
+			"  -n LANG        spell numbers in LANG (de, en, fr, sp, it) instead of dropping them\n" +
+			"  -s             do not replace special characters like umlauts\n" +
+			"  -t THREADS     number of files to encrypt concurrently (default: number of cores)\n" +
+			"  -o DIR         directory for encrypted files (default: next to the input file)\n" +
+			"  -q             do not report statistics\n" +
+			"Without FILE, stdin is encrypted to stdout.";
+
+	private Enigma enigma;
+	private String numericLanguage;
+	private boolean replaceSpecialChars = true;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private File outputDirectory;
+	private boolean quiet;
+	private final List<File> files = new ArrayList<>();
+
+	public static void main(String[] args)
+	{
+		EnigmaCli cli = new EnigmaCli();
+		try
+		{
+			cli.parseArguments(args);
+		}
+		catch (IllegalArgumentException e)
+		{
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		try
+		{
+			if (cli.files.isEmpty()) cli.encryptStream();
+			else cli.encryptFiles();
+		}
+		catch (IOException | ExecutionException e)
+		{
+			System.err.println("Error: " + (e.getCause() != null ? e.getCause() : e));
+			System.exit(1);
+		}
+		catch (InterruptedException e)
+		{
+			System.exit(1);
+		}
+	}
+
+	void parseArguments(String[] args)
+	{
+		for (int i = 0; i < args.length; i++)
+		{
+			String arg = args[i];
+			switch (arg)
+			{
+				case "-c":
+					try
+					{
+						enigma = Enigma.createEnigmaFromCode(value(args, ++i, arg));
+					}
+					catch (NumberFormatException e)
+					{
+						enigma = null;
+					}
+					if (enigma == null)
+						throw new IllegalArgumentException("Invalid state code " + args[i]);
+					break;
+				case "-p":
+					enigma = Enigma.createEnigmaFromSeed(value(args, ++i, arg));
+					break;
+				case "-n":
+					numericLanguage = value(args, ++i, arg);
+					if (!LANGUAGES.contains(numericLanguage))
+						throw new IllegalArgumentException("Unknown language " + numericLanguage);
+					break;
+				case "-s":
+					replaceSpecialChars = false;
+					break;
+				case "-t":
+					try
+					{
+						threads = Integer.parseInt(value(args, ++i, arg));
+					}
+					catch (NumberFormatException e)
+					{
+						threads = 0;
+					}
+					if (threads < 1)
+						throw new IllegalArgumentException("Invalid number of threads " + args[i]);
+					break;
+				case "-o":
+					outputDirectory = new File(value(args, ++i, arg));
+					if (!outputDirectory.isDirectory())
+						throw new IllegalArgumentException("No directory: " + outputDirectory);
+					break;
+				case "-q":
+					quiet = true;
+					break;
+				default:
+					if (arg.startsWith("-") && arg.length() > 1)
+						throw new IllegalArgumentException("Unknown option " + arg);
+					files.add(new File(arg));
+			}
+		}
+		if (enigma == null)
+			throw new IllegalArgumentException("Either -c or -p is required");
+		checkTargets();
+		enigma.setUseCompiledTables(true);
+	}
+
+	/**
+	 * Make sure that no two files get encrypted into the same target, which happens if files with
+	 * the same name from different directories are written into the directory given by -o.
+	 */
+	private void checkTargets()
+	{
+		Map<File, File> sources = new HashMap<>();
+		for (File file : files)
+		{
+			File target = getTarget(file);
+			try
+			{
+				target = target.getCanonicalFile();
+			}
+			catch (IOException e)
+			{
+				target = target.getAbsoluteFile();
+			}
+			File other = sources.put(target, file);
+			if (other != null)
+				throw new IllegalArgumentException("Both " + other + " and " + file
+						+ " would be encrypted into " + target);
+		}
+	}
+
+	private File getTarget(File file)
+	{
+		return new File(outputDirectory != null ? outputDirectory : file.getAbsoluteFile()
+				.getParentFile(), file.getName() + SUFFIX);
+	}
+
+	private static String value(String[] args, int i, String option)
+	{
+		if (i >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+		return args[i];
+	}
+
+	private InputPreparer createInputPreparer()
+	{
+		return InputPreparer.createInputPreparer(replaceSpecialChars, numericLanguage);
+	}
+
+	/**
+	 * Encrypt stdin to stdout.
+	 * @throws IOException if reading or writing fails
+	 */
+	void encryptStream() throws IOException
+	{
+		long start = System.nanoTime();
+		Reader in = new EnigmaReader(new InputStreamReader(System.in, UTF_8), enigma,
+				createInputPreparer());
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out, UTF_8), BUFFER_SIZE);
+		long chars = pipe(in, out);
+		out.write('\n');
+		out.flush();
+		report("stdin", chars, System.nanoTime() - start);
+	}
+
+	/**
+	 * Encrypt all files concurrently.
+	 * @throws IOException if reading or writing of a file fails
+	 * @throws ExecutionException if encrypting a file fails otherwise
+	 * @throws InterruptedException if interrupted while waiting for the files
+	 */
+	void encryptFiles() throws IOException, ExecutionException, InterruptedException
+	{
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.size()));
+		try
+		{
+			List<Future<Long>> results = new ArrayList<>(files.size());
+			for (final File file : files)
+			{
+				final Enigma copy = enigma.copy();
+				results.add(executor.submit(new Callable<Long>()
+				{
+					@Override
+					public Long call() throws IOException
+					{
+						return encryptFile(file, copy);
+					}
+				}));
+			}
+			long chars = 0;
+			for (Future<Long> result : results)
+			{
+				chars += result.get();
+			}
+			report(files.size() + " files", chars, System.nanoTime() - start);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private long encryptFile(File file, Enigma enigma) throws IOException
+	{
+		File target = getTarget(file);
+		Reader in = new EnigmaReader(new InputStreamReader(new FileInputStream(file), UTF_8),
+				enigma, createInputPreparer());
+		try
+		{
+			Writer out = new OutputStreamWriter(new FileOutputStream(target), UTF_8);
+			try
+			{
+				return pipe(in, out);
+			}
+			finally
+			{
+				out.close();
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	private static long pipe(Reader in, Writer out) throws IOException
+	{
+		char[] buffer = new char[BUFFER_SIZE];
+		long chars = 0;
+		int n;
+		while ((n = in.read(buffer)) != -1)
+		{
+			out.write(buffer, 0, n);
+			chars += n;
+		}
+		return chars;
+	}
+
+	private void report(String source, long chars, long nanos)
+	{
+		if (quiet) return;
+		double seconds = nanos / 1e9;
+		System.err.printf("Encrypted %d chars of %s in %.3f s (%.0f chars/s)%n", chars, source,
+				seconds, seconds > 0 ? chars / seconds : 0);
+	}
+}
@@ -0,0 +1,348 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import java.util.Arrays;
+
+import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
+import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
+import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
+import de.vanitasvitae.enigmandroid.enigma.parts.Rotor;
+
+/**
+ * Compiled representation of a configured enigma machine.
+ * For every rotor the substitutions in both directions are precomputed for all 26 rotations
+ * with the ring setting already folded in. That way sending a signal through the machine only
+ * takes table lookups instead of normalizing the signal between every pair of parts.
+ * The tables only depend on the configuration (parts, ring settings, plugboard and reflector
+ * wiring), not on the rotations of the rotors, so they never change once they are compiled.
+ *
+ * Plugboard and entry wheel are folded into the tables of the first rotor. Since the first rotor
+ * is the only one moving for most chars, the path through the remaining rotors and the
+ * reflector can be composed into a single permutation (see composeInner()), which only needs to
+ * be composed again when one of those parts moves. A char then only takes three lookups.
+ *
+ * The positions of the moving parts are handled as a packed int state (see Enigma.getPackedState())
+ * and stepped via the turnover notch bitmasks of the rotors (see nextState(int)).
+ */
+public class CompiledEnigma
+{
+	/** Number of contacts of every part */
+	static final int SIZE = 26;
+
+	/** Number of bits of a rotation inside a packed state */
+	static final int BITS = 5;
+	static final int ROTATION_MASK = (1 << BITS) - 1;
+	/** Position of the rotation of the reflector inside a packed state */
+	static final int REFLECTOR_SHIFT = 4 * BITS;
+	/** Bit of a packed state, which is set if the double turn anomaly is pending */
+	static final int ANOMALY = 1 << (5 * BITS);
+	/** Bits of a packed state, that the permutation composed by composeInner() depends on */
+	static final int INNER_MASK = ~ROTATION_MASK & (ANOMALY - 1);
+
+	/** Estimated heap overhead of an array and of an object (see getMemorySize()) */
+	private static final int ARRAY_OVERHEAD = 16;
+	private static final int OBJECT_OVERHEAD = 96;
+
+	private final byte[] plugboard;
+	private final byte[] entryForward;
+	private final byte[] entryBackward;
+
+	/** Forward tables of the rotors, indexed by [slot][rotation * SIZE + input] */
+	private final byte[][] forward;
+	/** Backward tables of the rotors, indexed by [slot][rotation * SIZE + input] */
+	private final byte[][] backward;
+
+	/** Table of the first rotor with plugboard and entry wheel folded in (forward direction) */
+	private final byte[] first;
+	/** Table of the first rotor with entry wheel and plugboard folded in (backward direction) */
+	private final byte[] last;
+
+	/** Reflector table, indexed by rotation * SIZE + input if the reflector is rotatable */
+	private final byte[] reflector;
+	private final boolean reflectorRotatable;
+
+	/** Turnover notches of the rotors as bitmasks */
+	private final int[] turnOverNotches;
+	/** Positions of the second rotor at which the double turn anomaly happens as bitmask */
+	private final int doubleTurnAnomalies;
+	private final boolean steppingReflector;
+
+	//Configuration the tables were compiled from
+	private final int entryWheelIndex;
+	private final int[] rotorIndices;
+	private final int[] rotorRingSettings;
+	private final int reflectorIndex;
+	private final int reflectorRingSetting;
+	private final int[] reflectorWiring;
+
+	/**
+	 * Compile the given parts into tables.
+	 * @param plugboard plugboard of the machine or null, if the machine has none
+	 * @param entryWheel entry wheel
+	 * @param rotors rotors in the order the signal passes them on its way to the reflector
+	 * @param reflector reflector
+	 * @param reflectorRotatable true, if the rotation and ring setting of the reflector
+	 *                           take effect on the signal
+	 * @param steppingReflector true, if the machine steps like an odometer including the
+	 *                          reflector, false if it uses the double turn anomaly
+	 */
+	CompiledEnigma(Plugboard plugboard, EntryWheel entryWheel, Rotor[] rotors,
+				   Reflector reflector, boolean reflectorRotatable, boolean steppingReflector)
+	{
+		this.plugboard = new byte[SIZE];
+		this.entryForward = new byte[SIZE];
+		this.entryBackward = new byte[SIZE];
+		for (int x = 0; x < SIZE; x++)
+		{
+			this.plugboard[x] = (byte) (plugboard != null ? plugboard.encrypt(x) : x);
+			this.entryForward[x] = (byte) entryWheel.encryptForward(x);
+			this.entryBackward[x] = (byte) entryWheel.encryptBackward(x);
+		}
+
+		this.forward = new byte[rotors.length][];
+		this.backward = new byte[rotors.length][];
+		this.turnOverNotches = new int[rotors.length];
+		this.rotorIndices = new int[rotors.length];
+		this.rotorRingSettings = new int[rotors.length];
+		for (int i = 0; i < rotors.length; i++)
+		{
+			Rotor r = rotors[i];
+			this.forward[i] = new byte[SIZE * SIZE];
+			this.backward[i] = new byte[SIZE * SIZE];
+			for (int rotation = 0; rotation < SIZE; rotation++)
+			{
+				int shift = normalize(rotation - r.getRingSetting());
+				for (int x = 0; x < SIZE; x++)
+				{
+					this.forward[i][rotation * SIZE + x] =
+							(byte) normalize(r.encryptForward(x + shift) - shift);
+					this.backward[i][rotation * SIZE + x] =
+							(byte) normalize(r.encryptBackward(x + shift) - shift);
+				}
+			}
+			this.turnOverNotches[i] = r.getTurnOverNotchMask();
+			this.rotorIndices[i] = r.getIndex();
+			this.rotorRingSettings[i] = r.getRingSetting();
+		}
+		this.doubleTurnAnomalies = rotors[1].getDoubleTurnAnomalyMask();
+		this.steppingReflector = steppingReflector;
+
+		this.reflectorRotatable = reflectorRotatable;
+		int rotations = reflectorRotatable ? SIZE : 1;
+		this.reflector = new byte[rotations * SIZE];
+		for (int rotation = 0; rotation < rotations; rotation++)
+		{
+			int shift = reflectorRotatable ? normalize(rotation - reflector.getRingSetting()) : 0;
+			for (int x = 0; x < SIZE; x++)
+			{
+				this.reflector[rotation * SIZE + x] =
+						(byte) normalize(reflector.encrypt(normalize(x + shift)) - shift);
+			}
+		}
+
+		this.first = new byte[SIZE * SIZE];
+		this.last = new byte[SIZE * SIZE];
+		for (int rotation = 0; rotation < SIZE; rotation++)
+		{
+			for (int x = 0; x < SIZE; x++)
+			{
+				int i = rotation * SIZE + x;
+				this.first[i] = forward[0][rotation * SIZE + entryForward[this.plugboard[x]]];
+				this.last[i] = this.plugboard[entryBackward[backward[0][i]]];
+			}
+		}
+
+		this.entryWheelIndex = entryWheel.getIndex();
+		this.reflectorIndex = reflector.getIndex();
+		this.reflectorRingSetting = reflector.getRingSetting();
+		this.reflectorWiring = reflector.getConfiguration();
+	}
+
+	/**
+	 * Send the signal x through the machine.
+	 * @param x input signal (0..25)
+	 * @param state packed state holding the rotations of the rotors and the reflector
+	 * @return output signal (0..25)
+	 */
+	public int encrypt(int x, int state)
+	{
+		int rotation1 = state & ROTATION_MASK;
+		return last[rotation1 * SIZE + inner(first[rotation1 * SIZE + x], state)];
+	}
+
+	/**
+	 * Send the signal x through the machine using a permutation of the inner parts that was
+	 * composed via composeInner() for the current rotations of all but the first rotor.
+	 * @param x input signal (0..25)
+	 * @param rotation1 rotation of the first rotor
+	 * @param inner composed permutation of the inner parts
+	 * @return output signal (0..25)
+	 */
+	public int encrypt(int x, int rotation1, byte[] inner)
+	{
+		return last[rotation1 * SIZE + inner[first[rotation1 * SIZE + x]]];
+	}
+
+	/**
+	 * Compose the path from the first rotor through all other rotors, the reflector and back
+	 * into a single permutation. Only the bits in INNER_MASK of the state are taken into account.
+	 * @param state packed state holding the rotations of the rotors and the reflector
+	 * @param inner array of length 26 the permutation gets written to
+	 */
+	public void composeInner(int state, byte[] inner)
+	{
+		for (int x = 0; x < SIZE; x++)
+		{
+			inner[x] = (byte) inner(x, state);
+		}
+	}
+
+	private int inner(int x, int state)
+	{
+		for (int i = 1; i < forward.length; i++)
+		{
+			x = forward[i][((state >> (i * BITS)) & ROTATION_MASK) * SIZE + x];
+		}
+		x = reflector[(reflectorRotatable ? ((state >> REFLECTOR_SHIFT) & ROTATION_MASK) * SIZE : 0) + x];
+		for (int i = backward.length - 1; i >= 1; i--)
+		{
+			x = backward[i][((state >> (i * BITS)) & ROTATION_MASK) * SIZE + x];
+		}
+		return x;
+	}
+
+	/**
+	 * Return the packed state the machine is in after the next step. This is equivalent to
+	 * Enigma.nextState(), but only works on the packed state.
+	 * @param state packed state
+	 * @return next packed state
+	 */
+	public int nextState(int state)
+	{
+		if (steppingReflector)
+		{
+			for (int i = 0; i < forward.length; i++)
+			{
+				int shift = i * BITS;
+				int r = rotate((state >> shift) & ROTATION_MASK);
+				state = (state & ~(ROTATION_MASK << shift)) | r << shift;
+				if (((turnOverNotches[i] >> r) & 1) == 0) return state;
+			}
+			int r = rotate((state >> REFLECTOR_SHIFT) & ROTATION_MASK);
+			return (state & ~(ROTATION_MASK << REFLECTOR_SHIFT)) | r << REFLECTOR_SHIFT;
+		}
+		int r1 = rotate(state & ROTATION_MASK);
+		state = (state & ~ROTATION_MASK) | r1;
+		if (((turnOverNotches[0] >> r1) & 1) != 0 || (state & ANOMALY) != 0)
+		{
+			int r2 = rotate((state >> BITS) & ROTATION_MASK);
+			state = (state & ~(ROTATION_MASK << BITS | ANOMALY)) | r2 << BITS;
+			if (((doubleTurnAnomalies >> r2) & 1) != 0) state |= ANOMALY;
+			if (((turnOverNotches[1] >> r2) & 1) != 0)
+			{
+				int r3 = rotate((state >> (2 * BITS)) & ROTATION_MASK);
+				state = (state & ~(ROTATION_MASK << (2 * BITS))) | r3 << (2 * BITS);
+			}
+		}
+		return state;
+	}
+
+	private static int rotate(int rotation)
+	{
+		return rotation == SIZE - 1 ? 0 : rotation + 1;
+	}
+
+	/**
+	 * Return true, if the machine steps like an odometer including the reflector
+	 * @return true if the reflector steps
+	 */
+	public boolean hasSteppingReflector()
+	{
+		return steppingReflector;
+	}
+
+	/**
+	 * Return true, if the rotation of the reflector takes effect on the signal
+	 * @return true if the reflector is rotatable
+	 */
+	public boolean hasRotatableReflector()
+	{
+		return reflectorRotatable;
+	}
+
+	/**
+	 * Return the number of rotors the tables were compiled for
+	 * @return number of rotors
+	 */
+	public int getRotorCount()
+	{
+		return forward.length;
+	}
+
+	/**
+	 * Return an estimate of the heap memory the tables occupy in bytes.
+	 * @return memory size in bytes
+	 */
+	int getMemorySize()
+	{
+		int arrays = 12 + 2 * forward.length;
+		int bytes = 3 * SIZE + 2 * forward.length * SIZE * SIZE + 2 * SIZE * SIZE
+				+ reflector.length + 4 * (3 * forward.length + reflectorWiring.length);
+		return ARRAY_OVERHEAD * arrays + bytes + OBJECT_OVERHEAD;
+	}
+
+	/**
+	 * Return true, if the tables were compiled from parts configured exactly like the given ones.
+	 * Rotations are not taken into account, since they are not part of the tables.
+	 * @param plugboard plugboard or null
+	 * @param entryWheel entry wheel
+	 * @param rotors rotors
+	 * @param reflector reflector
+	 * @return true if the tables can be used for the given parts
+	 */
+	boolean isCompiledFrom(Plugboard plugboard, EntryWheel entryWheel, Rotor[] rotors,
+						   Reflector reflector)
+	{
+		if (entryWheel.getIndex() != entryWheelIndex || rotors.length != rotorIndices.length
+				|| reflector.getIndex() != reflectorIndex
+				|| reflector.getRingSetting() != reflectorRingSetting
+				|| !reflector.hasConfiguration(reflectorWiring))
+		{
+			return false;
+		}
+		for (int i = 0; i < rotors.length; i++)
+		{
+			if (rotors[i].getIndex() != rotorIndices[i]
+					|| rotors[i].getRingSetting() != rotorRingSettings[i])
+			{
+				return false;
+			}
+		}
+		for (int x = 0; x < SIZE; x++)
+		{
+			if (this.plugboard[x] != (plugboard != null ? plugboard.encrypt(x) : x))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int normalize(int input)
+	{
+		return ((input % SIZE) + SIZE) % SIZE;
+	}
+}
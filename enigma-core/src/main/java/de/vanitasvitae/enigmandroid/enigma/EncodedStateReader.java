@@ -0,0 +1,83 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import java.math.BigInteger;
+
+/**
+ * Reads the digits of an encoded state (see Enigma.getEncodedState()) one after another,
+ * starting with the least significant digit.
+ * Reading a digit gives the same result as Enigma.getValue() followed by Enigma.removeDigit(),
+ * but only takes a single division. As soon as the rest of the state fits into a long, the
+ * digits are read using long arithmetic.
+ */
+public final class EncodedStateReader
+{
+	private BigInteger big;
+	private long small;
+
+	public EncodedStateReader(BigInteger s)
+	{
+		setRemainder(s);
+	}
+
+	/**
+	 * Read the next digit.
+	 * @param radix radix of the digit
+	 * @return value of the digit (0..radix-1)
+	 */
+	public int next(int radix)
+	{
+		if (big == null)
+		{
+			int digit = (int) (small % radix);
+			if (digit < 0) digit += radix;
+			small = (small - digit) / radix;
+			return digit;
+		}
+		BigInteger[] qr = big.divideAndRemainder(BigInteger.valueOf(radix));
+		int digit = qr[1].intValue();
+		BigInteger quotient = qr[0];
+		if (digit < 0)
+		{
+			digit += radix;
+			quotient = quotient.subtract(BigInteger.ONE);
+		}
+		setRemainder(quotient);
+		return digit;
+	}
+
+	/**
+	 * Return the digits that have not been read yet.
+	 * @return remaining encoded state
+	 */
+	public BigInteger remainder()
+	{
+		return big != null ? big : BigInteger.valueOf(small);
+	}
+
+	private void setRemainder(BigInteger s)
+	{
+		if (s.bitLength() < Long.SIZE)
+		{
+			big = null;
+			small = s.longValue();
+		}
+		else
+		{
+			big = s;
+		}
+	}
+}
@@ -0,0 +1,1047 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
+import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
+import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
+import de.vanitasvitae.enigmandroid.enigma.parts.Rotor;
+
+/**
+ * Main component of the Enigma machine
+ * This is the mostly abstract base of any enigma machine.
+ *
+ * All state of a machine (parts, positions, machine type and random number generator) belongs to
+ * the instance, so different machines can be used by different threads at the same time.
+ * A single machine is not thread safe and must only be used by one thread at a time. To share a
+ * configuration between threads, use getConfig() and give every thread its own EnigmaCursor, or
+ * give every thread its own copy().
+ * Copyright (C) 2015  Paul Schaub
+ */
+public abstract class Enigma
+{
+	public static final String APP_ID = "EnigmAndroid";
+	public static final int latest_protocol_version = 1;
+	public static final int max_protocol_version = 256;
+
+	static final Logger LOG = Logger.getLogger(APP_ID);
+
+	/** Minimal number of chars a chunk of a parallel encryption should have */
+	private static final int MIN_PARALLEL_CHUNK = 64 * 1024;
+
+	String machineType;
+
+	boolean doAnomaly = false;  //Has the time come to handle an anomaly?
+
+	ArrayList<EntryWheel> availableEntryWheels;
+	ArrayList<Rotor> availableRotors;
+	ArrayList<Reflector> availableReflectors;
+
+	Random rand;
+
+	private boolean useCompiledTables = false;
+	private CompiledEnigma compiled;
+	/** Scratch buffer for the composed permutation of the inner parts (see encryptCompiled) */
+	private byte[] inner;
+	private PermutationTable permutationTable;
+
+	/** Packed state the position was last set to directly (see previousState()) */
+	private int anchorState;
+	/** Number of steps done since the position was anchorState or -1, if it is not known yet */
+	private long stepsSinceAnchor = -1;
+
+	Enigma()
+	{
+		establishAvailableParts();
+		initialize();
+	}
+
+	/**
+	 * In this method, available EntryWheels, Rotors and Reflectors can be defined.
+	 */
+	protected abstract void establishAvailableParts();
+
+	/**
+	 * Add a Rotor to the ArrayList of available rotors for this machine.
+	 * Also set the index of the Rotor.
+	 * @param r Rotor
+	 */
+	void addAvailableRotor(Rotor r)
+	{
+		if(availableRotors == null) availableRotors = new ArrayList<>();
+		availableRotors.add(availableRotors.size(), r.setIndex(availableRotors.size()));
+	}
+
+	void addAvailableEntryWheel(EntryWheel e)
+	{
+		if(availableEntryWheels == null) availableEntryWheels = new ArrayList<>();
+		availableEntryWheels.add(availableEntryWheels.size(), e.setIndex(availableEntryWheels.size()));
+	}
+
+	void addAvailableReflector(Reflector r)
+	{
+		if(availableReflectors == null) availableReflectors = new ArrayList<>();
+		availableReflectors.add(availableReflectors.size(), r.setIndex(availableReflectors.size()));
+	}
+
+	public ArrayList<EntryWheel> getAvailableEntryWheels()
+	{
+		return availableEntryWheels;
+	}
+
+	public ArrayList<Rotor> getAvailableRotors()
+	{
+		return availableRotors;
+	}
+
+	public ArrayList<Reflector> getAvailableReflectors()
+	{
+		return availableReflectors;
+	}
+
+	EntryWheel getEntryWheel(int index)
+	{
+		if(availableEntryWheels == null || availableEntryWheels.size() == 0) return null;
+		return availableEntryWheels.get(index % availableEntryWheels.size()).getInstance();
+	}
+
+	Rotor getRotor(int index)
+	{
+		if(availableRotors == null || availableRotors.size() == 0) return null;
+		return availableRotors.get(index % availableRotors.size()).getInstance();
+	}
+
+	Rotor getRotor(int index, int rotation, int ringSetting)
+	{
+		return getRotor(index).setRotation(rotation).setRingSetting(ringSetting);
+	}
+
+	Reflector getReflector(int index)
+	{
+		if(availableReflectors == null || availableReflectors.size() == 0) return null;
+		return availableReflectors.get(index%availableReflectors.size()).getInstance();
+	}
+
+	Reflector getReflector(int index, int rotation, int ringSetting)
+	{
+		return getReflector(index).setRotation(rotation).setRingSetting(ringSetting);
+	}
+
+	/**
+	 * Set the enigma to an initial state
+	 */
+	protected abstract void initialize();
+
+	/**
+	 * Return the entry wheel that is currently in use.
+	 * @return entry wheel
+	 */
+	abstract EntryWheel getEntryWheel();
+
+	/**
+	 * Return the rotors that are currently in use in the order the signal passes them on its way
+	 * from the entry wheel to the reflector (rotor1 first).
+	 * @return rotors
+	 */
+	abstract Rotor[] getRotors();
+
+	/**
+	 * Return the reflector that is currently in use.
+	 * @return reflector
+	 */
+	abstract Reflector getReflector();
+
+	/**
+	 * Return the plugboard of the machine or null, if the machine has no plugboard.
+	 * @return plugboard or null
+	 */
+	Plugboard getPlugboard()
+	{
+		return null;
+	}
+
+	/**
+	 * Return true, if the rotation and ringSetting of the reflector take effect on the signal.
+	 * @return true if the reflector is rotatable
+	 */
+	boolean hasRotatableReflector()
+	{
+		return false;
+	}
+
+	/**
+	 * Return true, if the reflector moves while encrypting (like in the G31 family).
+	 * @return true if the reflector steps
+	 */
+	boolean hasSteppingReflector()
+	{
+		return false;
+	}
+
+	/**
+	 * Compile the current configuration of the machine into a CompiledEnigma.
+	 * @return compiled tables of the current configuration
+	 */
+	public CompiledEnigma compile()
+	{
+		return new CompiledEnigma(getPlugboard(), getEntryWheel(), getRotors(), getReflector(),
+				hasRotatableReflector(), hasSteppingReflector());
+	}
+
+	/**
+	 * Return the current configuration of the machine as immutable EnigmaConfig, which can be
+	 * shared between threads. The current position becomes the initial position of cursors
+	 * created from the configuration.
+	 * @return configuration
+	 */
+	public EnigmaConfig getConfig()
+	{
+		if (compiled == null || !compiled.isCompiledFrom(getPlugboard(), getEntryWheel(),
+				getRotors(), getReflector()))
+		{
+			compiled = compile();
+		}
+		return new EnigmaConfig(getMachineType(), compiled, getPackedState());
+	}
+
+	/**
+	 * Return the positions of all moving parts packed into a single int. Bits 0-4, 5-9, 10-14
+	 * and 15-19 hold the rotations of the rotors (rotor1 first), bits 20-24 hold the rotation of
+	 * the reflector and bit 25 is set, if the double turn anomaly is pending.
+	 * Together with the configuration of the machine, this is a complete snapshot of its state.
+	 * @return packed state
+	 */
+	public int getPackedState()
+	{
+		Rotor[] rotors = getRotors();
+		int state = getReflector().getRotation() << CompiledEnigma.REFLECTOR_SHIFT;
+		for (int i = 0; i < rotors.length; i++)
+		{
+			state |= rotors[i].getRotation() << (i * CompiledEnigma.BITS);
+		}
+		return doAnomaly ? state | CompiledEnigma.ANOMALY : state;
+	}
+
+	/**
+	 * Restore the positions of all moving parts from a packed state (see getPackedState()).
+	 * @param state packed state
+	 */
+	public void setPackedState(int state)
+	{
+		setPositions(state);
+		this.stepsSinceAnchor = -1;
+	}
+
+	/**
+	 * Same as setPackedState(int), but keeps counting the steps since the last state that was set
+	 * directly. Used by the methods that move the parts like nextState() does.
+	 */
+	private void setPositions(int state)
+	{
+		Rotor[] rotors = getRotors();
+		for (int i = 0; i < rotors.length; i++)
+		{
+			rotors[i].setRotation((state >> (i * CompiledEnigma.BITS)) & CompiledEnigma.ROTATION_MASK);
+		}
+		getReflector().setRotation((state >> CompiledEnigma.REFLECTOR_SHIFT) & CompiledEnigma.ROTATION_MASK);
+		this.doAnomaly = (state & CompiledEnigma.ANOMALY) != 0;
+	}
+
+	/**
+	 * Set whether the bulk encryption methods should use precompiled tables (see compile())
+	 * instead of sending every char through the parts one by one. The tables get compiled again
+	 * automatically whenever the configuration of the machine changes.
+	 * @param useCompiledTables true to use compiled tables
+	 */
+	public void setUseCompiledTables(boolean useCompiledTables)
+	{
+		this.useCompiledTables = useCompiledTables;
+		if (!useCompiledTables) this.compiled = null;
+	}
+
+	public boolean isUsingCompiledTables()
+	{
+		return useCompiledTables;
+	}
+
+	/**
+	 * Create a PermutationTable for the current configuration of the machine.
+	 * The table itself is built lazily on first use.
+	 * @param memoryBudget maximum size of the table in bytes
+	 * @return table or null, if the table would exceed the memory budget
+	 */
+	public PermutationTable createPermutationTable(int memoryBudget)
+	{
+		if (PermutationTable.getRequiredBytes(hasSteppingReflector()) > memoryBudget) return null;
+		return new PermutationTable(compile(), getPackedState());
+	}
+
+	/**
+	 * Set a PermutationTable the bulk encryption methods should use. The table is only used as
+	 * long as the configuration of the machine matches the one the table was created for.
+	 * Pass null to stop using the table.
+	 * @param table permutation table or null
+	 */
+	public void setPermutationTable(PermutationTable table)
+	{
+		this.permutationTable = table;
+	}
+
+	/**
+	 * Encrypt / Decrypt a given String w.
+	 * w must be prepared using prepare(w) beforehand.
+	 * Doing so changes the state of the rotors but not the state of the plugboard and the
+	 * ringSettings
+	 *
+	 * @param w Text to decrypt/encryptString
+	 * @return encrypted/decrypted string
+	 */
+	public String encryptString(String w)
+	{
+		char[] chars = w.toCharArray();
+		encrypt(chars, 0, chars.length, chars, 0);
+		return new String(chars);
+	}
+
+	/**
+	 * Encrypt / Decrypt len chars of in starting at off and write the result to out starting at
+	 * outOff. The input must be prepared beforehand (see encryptString).
+	 * in and out may be the same array, as long as outOff is not greater than off.
+	 * This works in linear time. Apart from a few small objects for looking up the rotors, it
+	 * does not allocate any memory, regardless of len.
+	 *
+	 * @param in input chars
+	 * @param off offset of the first char in in
+	 * @param len number of chars to encrypt
+	 * @param out output array
+	 * @param outOff offset of the first encrypted char in out
+	 */
+	public void encrypt(char[] in, int off, int len, char[] out, int outOff)
+	{
+		if (off < 0 || len < 0 || outOff < 0 || off > in.length - len || outOff > out.length - len)
+		{
+			throw new IndexOutOfBoundsException();
+		}
+		if (permutationTable != null && permutationTable.isBuiltFrom(getPlugboard(),
+				getEntryWheel(), getRotors(), getReflector(), getPackedState()))
+		{
+			encryptWithTable(in, off, len, out, outOff);
+			return;
+		}
+		if (useCompiledTables)
+		{
+			encryptCompiled(in, off, len, out, outOff);
+			return;
+		}
+		for (int i = 0; i < len; i++)
+		{
+			out[outOff + i] = this.encryptChar(in[off + i]);
+		}
+	}
+
+	/**
+	 * Encrypt / Decrypt len chars like encrypt(char[], int, int, char[], int), but split the
+	 * input into chunks, which are encrypted in parallel by the given executor. Every chunk is
+	 * encrypted by its own copy of this enigma that is advanced to the offset of the chunk, so
+	 * the result is identical to the sequential encryption. Afterwards this enigma is in the same
+	 * state as after a sequential encryption.
+	 * in and out may only be the same array, if off and outOff are equal.
+	 *
+	 * @param in input chars
+	 * @param off offset of the first char in in
+	 * @param len number of chars to encrypt
+	 * @param out output array
+	 * @param outOff offset of the first encrypted char in out
+	 * @param executor executor that encrypts the chunks
+	 * @throws InterruptedException if the thread gets interrupted while waiting for the chunks
+	 */
+	public void encrypt(final char[] in, int off, int len, final char[] out, int outOff,
+						ExecutorService executor) throws InterruptedException
+	{
+		if (off < 0 || len < 0 || outOff < 0 || off > in.length - len || outOff > out.length - len)
+		{
+			throw new IndexOutOfBoundsException();
+		}
+		if (in == out && off != outOff)
+		{
+			throw new IllegalArgumentException("in and out must not overlap");
+		}
+		int chunks = Math.min(len / MIN_PARALLEL_CHUNK, Runtime.getRuntime().availableProcessors() * 4);
+		if (chunks <= 1)
+		{
+			encrypt(in, off, len, out, outOff);
+			return;
+		}
+
+		int chunkSize = (len + chunks - 1) / chunks;
+		ArrayList<Future<?>> futures = new ArrayList<>();
+		try
+		{
+			for (int start = 0; start < len; start += chunkSize)
+			{
+				final Enigma e = copy();
+				e.advance(start);
+				final int chunkOff = off + start;
+				final int chunkLen = Math.min(chunkSize, len - start);
+				final int chunkOutOff = outOff + start;
+				futures.add(executor.submit(new Callable<Void>()
+				{
+					@Override
+					public Void call()
+					{
+						e.encrypt(in, chunkOff, chunkLen, out, chunkOutOff);
+						return null;
+					}
+				}));
+			}
+			for (Future<?> f : futures)
+			{
+				f.get();
+			}
+		}
+		catch (ExecutionException e)
+		{
+			throw new RuntimeException("Encryption of a chunk failed", e.getCause());
+		}
+		finally
+		{
+			for (Future<?> f : futures)
+			{
+				f.cancel(true);
+			}
+		}
+		advance(len);
+	}
+
+	/**
+	 * Create a new enigma of the same type in exactly the same state as this one.
+	 * Compiled tables and the permutation table are shared with the copy.
+	 * @return copy of this enigma
+	 */
+	public Enigma copy()
+	{
+		Enigma copy;
+		try
+		{
+			copy = getClass().newInstance();
+		}
+		catch (InstantiationException | IllegalAccessException e)
+		{
+			throw new IllegalStateException("Can't create a copy of " + getClass().getName(), e);
+		}
+		copy.adoptState(this);
+		copy.useCompiledTables = this.useCompiledTables;
+		copy.compiled = this.compiled;
+		copy.permutationTable = this.permutationTable;
+		return copy;
+	}
+
+	/**
+	 * Set this enigma to exactly the same state as other, including a pending double step.
+	 * other must be of the same type as this enigma (eg. a copy of it).
+	 * @param other enigma whose state gets adopted
+	 */
+	public void adoptState(Enigma other)
+	{
+		setState(other.getState());
+		this.doAnomaly = other.doAnomaly;
+		this.anchorState = other.anchorState;
+		this.stepsSinceAnchor = other.stepsSinceAnchor;
+	}
+
+	/**
+	 * Same as encrypt(char[], int, int, char[], int), but using compiled tables.
+	 * The tables are only compiled again, if the configuration changed since the last call.
+	 * The permutation of the inner parts is only composed again, when any part but the first
+	 * rotor moved.
+	 */
+	private void encryptCompiled(char[] in, int off, int len, char[] out, int outOff)
+	{
+		Rotor[] rotors = getRotors();
+		Reflector reflector = getReflector();
+		if (compiled == null || !compiled.isCompiledFrom(getPlugboard(), getEntryWheel(),
+				rotors, reflector))
+		{
+			compiled = compile();
+		}
+		anchor();
+		if (inner == null) inner = new byte[CompiledEnigma.SIZE];
+		int state = getPackedState();
+		int composed = -1;
+		for (int i = 0; i < len; i++)
+		{
+			state = compiled.nextState(state);
+			if ((state & CompiledEnigma.INNER_MASK) != composed)
+			{
+				composed = state & CompiledEnigma.INNER_MASK;
+				compiled.composeInner(state, inner);
+			}
+			out[outOff + i] = (char) (compiled.encrypt(in[off + i] - 65,
+					state & CompiledEnigma.ROTATION_MASK, inner) + 65);
+		}
+		setPositions(state);
+		stepsSinceAnchor += len;
+	}
+
+	/**
+	 * Same as encrypt(char[], int, int, char[], int), but using the permutation table.
+	 */
+	private void encryptWithTable(char[] in, int off, int len, char[] out, int outOff)
+	{
+		byte[] table = permutationTable.getTable();
+		CompiledEnigma c = permutationTable.getCompiledEnigma();
+		anchor();
+		int state = getPackedState();
+		for (int i = 0; i < len; i++)
+		{
+			state = c.nextState(state);
+			out[outOff + i] = (char) (table[permutationTable.index(state) + in[off + i] - 65] + 65);
+		}
+		setPositions(state);
+		stepsSinceAnchor += len;
+	}
+
+	/**
+	 * Encrypt / Decrypt all remaining chars of in and put the result into out.
+	 * The positions of both buffers are advanced by the number of encrypted chars.
+	 *
+	 * @param in input buffer containing prepared text
+	 * @param out output buffer
+	 * @throws BufferOverflowException if out has less remaining space than in has chars
+	 */
+	public void encrypt(CharBuffer in, CharBuffer out)
+	{
+		int len = in.remaining();
+		if (out.remaining() < len)
+		{
+			throw new BufferOverflowException();
+		}
+		if (in.hasArray() && out.hasArray() && !out.isReadOnly())
+		{
+			encrypt(in.array(), in.arrayOffset() + in.position(), len,
+					out.array(), out.arrayOffset() + out.position());
+			in.position(in.position() + len);
+			out.position(out.position() + len);
+		}
+		else
+		{
+			for (int i = 0; i < len; i++)
+			{
+				out.put(this.encryptChar(in.get()));
+			}
+		}
+	}
+
+	/**
+	 * Set the enigma into the next mechanical state.
+	 * This rotates the first rotor and eventually also the second/third.
+	 * Also this method handles the anomaly in case it should happen.
+	 */
+	public void nextState()
+	{
+		anchor();
+		step();
+		stepsSinceAnchor++;
+	}
+
+	/**
+	 * Move the parts of the machine like described in nextState().
+	 */
+	protected abstract void step();
+
+	/**
+	 * Remember the current position as the one the steps get counted from, unless the steps
+	 * since the last directly set position are already being counted.
+	 */
+	private void anchor()
+	{
+		if (stepsSinceAnchor < 0)
+		{
+			anchorState = getPackedState();
+			stepsSinceAnchor = 0;
+		}
+	}
+
+	/**
+	 * Set the enigma into the previous mechanical state. This undoes one call of nextState(), so
+	 * a char can be taken back without encrypting the whole message again.
+	 * The machine remembers the position it was last set to directly (eg. via setState()) and
+	 * the number of steps done since then, so the previous state is that position advanced by
+	 * one step less (see advance(long)). This is exact for any position, even if it was set to a
+	 * state that can't be reached via nextState(), and takes constant time.
+	 * Stepping back beyond the position that was set directly leads to one possible predecessor:
+	 * For machines using the double turn anomaly, whether the second rotor moved can't always be
+	 * told from the current state alone. In that case it is derived from the positions the first
+	 * and second rotor had during the preceding steps, which needs at most 26 lookups.
+	 */
+	public void previousState()
+	{
+		if (stepsSinceAnchor > 0)
+		{
+			long steps = stepsSinceAnchor - 1;
+			setPositions(anchorState);
+			stepsSinceAnchor = 0;
+			advance(steps);
+			return;
+		}
+		stepsSinceAnchor = -1;
+
+		final int size = CompiledEnigma.SIZE;
+		Rotor[] rotors = getRotors();
+		if (hasSteppingReflector())
+		{
+			for (Rotor r : rotors)
+			{
+				boolean turnover = r.isAtTurnoverPosition();
+				r.setRotation((r.getRotation() + size - 1) % size);
+				if (!turnover) return;
+			}
+			Reflector reflector = getReflector();
+			reflector.setRotation(reflector.getRotation() + size - 1);
+			return;
+		}
+
+		Rotor rotor1 = rotors[0];
+		Rotor rotor2 = rotors[1];
+		Rotor rotor3 = rotors[2];
+		int mask1 = rotor1.getTurnOverNotchMask();
+		int anomalyMask2 = rotor2.getDoubleTurnAnomalyMask();
+		//If the anomaly is pending, the second rotor moved. If it is not pending although the second
+		//rotor is at an anomaly position, it did not move.
+		boolean stepped = this.doAnomaly || (!rotor2.doubleTurnAnomaly()
+				&& secondRotorStepped(rotor1.getRotation(), rotor2.getRotation(), mask1, anomalyMask2));
+		rotor1.setRotation((rotor1.getRotation() + size - 1) % size);
+		if (stepped)
+		{
+			if (rotor2.isAtTurnoverPosition())
+			{
+				rotor3.setRotation((rotor3.getRotation() + size - 1) % size);
+			}
+			rotor2.setRotation((rotor2.getRotation() + size - 1) % size);
+			this.doAnomaly = rotor2.doubleTurnAnomaly() && secondRotorStepped(
+					rotor1.getRotation(), rotor2.getRotation(), mask1, anomalyMask2);
+		}
+		else
+		{
+			this.doAnomaly = false;
+		}
+	}
+
+	/**
+	 * Return true, if the second rotor moved during the step that left the first and second rotor
+	 * at rotations r1 and r2. That is the case, if the first rotor arrived at a turnover position,
+	 * or if the second rotor arrived at an anomaly position during the step before.
+	 */
+	private static boolean secondRotorStepped(int r1, int r2, int mask1, int anomalyMask2)
+	{
+		final int size = CompiledEnigma.SIZE;
+		for (int i = 0; i < size; i++)
+		{
+			if (((mask1 >> r1) & 1) != 0) return true;
+			r2 = (r2 + size - 1) % size;
+			if (((anomalyMask2 >> r2) & 1) == 0) return false;
+			r1 = (r1 + size - 1) % size;
+		}
+		return false;
+	}
+
+	/**
+	 * Advance the enigma by n steps. Afterwards the enigma is in the same state as after n calls
+	 * of nextState(). The positions of the rotors (and of a stepping reflector) are calculated
+	 * from the stepping rules and the turnover notches instead of stepping n times, so the time
+	 * needed does not depend on n. That way it is possible to jump to any offset of a long
+	 * message.
+	 * Machines with a stepping reflector (G31 family) step like an odometer, all other machines
+	 * use the double turn anomaly.
+	 * @param n number of steps
+	 */
+	public void advance(long n)
+	{
+		if (n < 0) throw new IllegalArgumentException("Can't advance by a negative number of steps: " + n);
+		anchor();
+		if (hasSteppingReflector()) advanceOdometer(n);
+		else advanceDoubleTurn(n);
+		stepsSinceAnchor += n;
+	}
+
+	private void advanceOdometer(long n)
+	{
+		long steps = n;
+		for (Rotor r : getRotors())
+		{
+			int rotation = r.getRotation();
+			r.setRotation((int) ((rotation + steps) % CompiledEnigma.SIZE));
+			steps = countTurnovers(rotation, steps, r.getTurnOverNotchMask());
+		}
+		Reflector reflector = getReflector();
+		reflector.setRotation((int) ((reflector.getRotation() + steps) % CompiledEnigma.SIZE));
+	}
+
+	/**
+	 * Return the number of times a rotor, that starts at rotation start and steps the given number
+	 * of times, arrives at one of the turnover positions in mask.
+	 */
+	private static long countTurnovers(int start, long steps, int mask)
+	{
+		long count = (steps / CompiledEnigma.SIZE) * Integer.bitCount(mask);
+		int rest = (int) (steps % CompiledEnigma.SIZE);
+		for (int k = 1; k <= rest; k++)
+		{
+			if (((mask >> ((start + k) % CompiledEnigma.SIZE)) & 1) != 0) count++;
+		}
+		return count;
+	}
+
+	/**
+	 * The first rotor returns to the same rotation every 26 steps, so each block of 26 steps maps
+	 * the state of the second rotor (rotation and pending anomaly, 52 possible states) to a new
+	 * state. Starting from any state, the sequence of states gets periodic after at most 52
+	 * blocks, so all complete periods can be skipped.
+	 */
+	private void advanceDoubleTurn(long n)
+	{
+		final int size = CompiledEnigma.SIZE;
+		Rotor[] rotors = getRotors();
+		int r1 = rotors[0].getRotation();
+		int mask1 = rotors[0].getTurnOverNotchMask();
+		int mask2 = rotors[1].getTurnOverNotchMask();
+		int anomalyMask2 = rotors[1].getDoubleTurnAnomalyMask();
+
+		int state = rotors[1].getRotation() | (doAnomaly ? 32 : 0);
+		long blocks = n / size;
+		long r3Steps = 0;
+		int[] seenAt = new int[64];
+		Arrays.fill(seenAt, -1);
+		long[] r3StepsAt = new long[2 * size + 1];
+		boolean skipped = false;
+		for (long b = 0; b < blocks; b++)
+		{
+			if (!skipped)
+			{
+				if (seenAt[state] >= 0)
+				{
+					long period = b - seenAt[state];
+					long periods = (blocks - b) / period;
+					r3Steps += periods * (r3Steps - r3StepsAt[seenAt[state]]);
+					b += periods * period;
+					skipped = true;
+					if (b == blocks) break;
+				}
+				else
+				{
+					seenAt[state] = (int) b;
+					r3StepsAt[(int) b] = r3Steps;
+				}
+			}
+			int result = stepDoubleTurn(r1, state, size, mask1, mask2, anomalyMask2);
+			state = result & 63;
+			r3Steps += result >> 6;
+		}
+		int result = stepDoubleTurn(r1, state, (int) (n % size), mask1, mask2, anomalyMask2);
+		state = result & 63;
+		r3Steps += result >> 6;
+
+		rotors[0].setRotation((int) ((r1 + n) % size));
+		rotors[1].setRotation(state & 31);
+		rotors[2].setRotation((int) ((rotors[2].getRotation() + r3Steps) % size));
+		this.doAnomaly = (state & 32) != 0;
+	}
+
+	/**
+	 * Step the second rotor like nextState() does for the given number of steps.
+	 * @return new state of the second rotor | number of steps of the third rotor << 6
+	 */
+	private static int stepDoubleTurn(int r1, int state, int steps, int mask1, int mask2,
+									  int anomalyMask2)
+	{
+		int r2 = state & 31;
+		boolean anomaly = (state & 32) != 0;
+		int r3Steps = 0;
+		for (int i = 0; i < steps; i++)
+		{
+			r1 = (r1 + 1) % CompiledEnigma.SIZE;
+			if (((mask1 >> r1) & 1) != 0 || anomaly)
+			{
+				r2 = (r2 + 1) % CompiledEnigma.SIZE;
+				anomaly = ((anomalyMask2 >> r2) & 1) != 0;
+				if (((mask2 >> r2) & 1) != 0) r3Steps++;
+			}
+		}
+		return r3Steps << 6 | (anomaly ? 32 : 0) | r2;
+	}
+
+	/**
+	 * Set the enigma into a completely random state using a new unseeded SecureRandom object.
+	 */
+	public void randomState()
+	{
+		randomState(new SecureRandom());
+	}
+
+	/**
+	 * Set the enigma into a completely random state using the given random number generator.
+	 * @param rand random number generator
+	 */
+	public void randomState(Random rand)
+	{
+		this.rand = rand;
+		generateState();
+		this.stepsSinceAnchor = -1;
+	}
+
+	/**
+	 * Set the enigma to a random state based on the initialization of rand.
+	 * Don not choose a rotor twice, set random rotations, ringSettings, ukw and possibly
+	 * plugboard / rewirable ukw configurations.
+	 */
+	protected abstract void generateState();
+
+	/**
+	 * Substitute char k by sending the signal through the enigma.
+	 * The signal passes the plugboard, the rotors and returns back after going through the
+	 * reflector wheel.
+	 *
+	 * @param k input char
+	 * @return substituted output char
+	 */
+	public abstract char encryptChar(char k);
+
+	/**
+	 * Set the state of the enigma
+	 * @param state new state
+	 */
+	public void setState(EnigmaStateBundle state)
+	{
+		applyState(state);
+		this.stepsSinceAnchor = -1;
+	}
+
+	/**
+	 * Set the parts of the machine like described in setState(EnigmaStateBundle).
+	 */
+	protected abstract void applyState(EnigmaStateBundle state);
+
+	/**
+	 * Return an object representing the current state of the enigma
+	 * @return state
+	 */
+	public abstract EnigmaStateBundle getState();
+
+	/**
+	 * Set the rand into a certain state based on seed.
+	 * Then set the enigmas state.
+	 * @param seed passphrase
+	 */
+	public void setStateFromSeed(String seed)
+	{
+		rand = new Random(seed.hashCode());
+		generateState();
+		this.stepsSinceAnchor = -1;
+	}
+
+	/**
+	 * Set the state of the enigma from an encoded state (see getEncodedState()).
+	 * @param mem encoded state without protocol version and machine type
+	 * @param protocol_version protocol version the state was encoded with
+	 */
+	public void restoreState(BigInteger mem, int protocol_version)
+	{
+		applyEncodedState(mem, protocol_version);
+		this.stepsSinceAnchor = -1;
+	}
+
+	/**
+	 * Set the parts of the machine like described in restoreState(BigInteger, int).
+	 */
+	protected abstract void applyEncodedState(BigInteger mem, int protocol_version);
+
+	public BigInteger getEncodedState()
+	{
+		return getEncodedState(latest_protocol_version);
+	}
+	protected abstract BigInteger getEncodedState(int protocol_version);
+
+	private static String numToMachineType(int n)
+	{
+		int m = 13;
+		n = (m+(n+m)%m)%m; //Problem? Trolololo
+		switch (n) {
+			case 0: return "I";
+			case 1: return "M3";
+			case 2: return "M4";
+			case 3: return "G31";
+			case 4: return "G312";
+			case 5: return "G260";
+			case 6: return "D";
+			case 7: return "K";
+			case 8: return "KS";
+			case 9: return "KSA";
+			case 10: return "R";
+			case 11: return "T";
+			case 12: return "KD";
+			default: return "KD";
+		}
+	}
+
+	public static String chooseEnigmaFromSeed(String seed)
+	{
+		return numToMachineType(seed.hashCode() % 13);
+	}
+
+	public static String chooseEnigmaFromSave(BigInteger save)
+	{
+		return numToMachineType(getValue(save, 20));
+	}
+
+	/**
+	 * Create a new machine of the given type.
+	 * @param machineType name indicator of the machine (see getMachineType())
+	 * @return Enigma or null if the type is unknown
+	 */
+	public static Enigma createEnigma(String machineType)
+	{
+		switch (machineType)
+		{
+			case "I": return new Enigma_I();
+			case "M3": return new Enigma_M3();
+			case "M4": return new Enigma_M4();
+			case "G31": return new Enigma_G31();
+			case "G312": return new Enigma_G312();
+			case "G260": return new Enigma_G260();
+			case "D": return new Enigma_D();
+			case "K": return new Enigma_K();
+			case "KS": return new Enigma_K_Swiss_Standard();
+			case "KSA": return new Enigma_K_Swiss_Airforce();
+			case "R": return new Enigma_R();
+			case "T": return new Enigma_T();
+			case "KD": return new Enigma_KD();
+			default:
+				LOG.severe("Tried to create Enigma of invalid type "+machineType);
+				return null;
+		}
+	}
+
+	/**
+	 * Create a machine from an encoded state (see getEncodedState()).
+	 * @param mem encoded state
+	 * @return Enigma or null if the machine type is unknown
+	 */
+	public static Enigma createEnigmaFromEncodedState(BigInteger mem)
+	{
+		EncodedStateReader reader = new EncodedStateReader(mem);
+		int protocol_version = reader.next(max_protocol_version);
+		Enigma enigma = createEnigma(numToMachineType(reader.next(20)));
+		if (enigma != null) enigma.restoreState(reader.remainder(), protocol_version);
+		return enigma;
+	}
+
+	/**
+	 * Create a machine from a hexadecimal state code as it is shared by the app.
+	 * The code may be prefixed with APP_ID+"/".
+	 * @param code hexadecimal encoded state
+	 * @return Enigma or null if the machine type is unknown
+	 * @throws NumberFormatException if the code is not a hexadecimal number
+	 */
+	public static Enigma createEnigmaFromCode(String code)
+	{
+		return createEnigmaFromEncodedState(decodeCode(code));
+	}
+
+	/**
+	 * Return the encoded state of a hexadecimal state code (see createEnigmaFromCode(String)).
+	 * @param code hexadecimal encoded state, optionally prefixed with APP_ID+"/"
+	 * @return encoded state
+	 * @throws NumberFormatException if the code is not a hexadecimal number
+	 */
+	public static BigInteger decodeCode(String code)
+	{
+		code = code.trim();
+		if (code.startsWith(APP_ID + "/")) code = code.substring((APP_ID + "/").length());
+		return new BigInteger(code, 16);
+	}
+
+	/**
+	 * Create a machine from a passphrase. Machine type and state are derived from the passphrase
+	 * the same way the app does it (see chooseEnigmaFromSeed() and setStateFromSeed()).
+	 * @param seed passphrase
+	 * @return Enigma
+	 */
+	public static Enigma createEnigmaFromSeed(String seed)
+	{
+		Enigma enigma = createEnigma(chooseEnigmaFromSeed(seed));
+		enigma.setStateFromSeed(seed);
+		return enigma;
+	}
+
+	/**
+	 * Return the name indicator of the enigma machine
+	 * @return name
+	 */
+	public String getMachineType()
+	{
+		return machineType;
+	}
+
+	/**
+	 *
+	 * @param s source
+	 * @param d domain (max value) of the value
+	 * @return value
+	 */
+	public static int getValue(BigInteger s, int d)
+	{
+		return s.mod(BigInteger.valueOf(d)).intValue();
+	}
+
+	/**
+	 * remove a digit of domain d from source s
+	 * @param s source
+	 * @param d domain (max value)
+	 * @return trimmed source
+	 */
+	public static BigInteger removeDigit(BigInteger s, int d)
+	{
+		BigInteger[] qr = s.divideAndRemainder(BigInteger.valueOf(d));
+		//Round towards negative infinity like the digits are read
+		return qr[1].signum() < 0 ? qr[0].subtract(BigInteger.ONE) : qr[0];
+	}
+
+	/**
+	 *
+	 * @param s source
+	 * @param b base (max value)
+	 * @param v actual value
+	 * @return lengthened source
+	 */
+	public static BigInteger addDigit(BigInteger s, int v, int b)
+	{
+		s = s.multiply(BigInteger.valueOf(b));
+		s = s.add(BigInteger.valueOf(v % b));
+		return s;
+	}
+}
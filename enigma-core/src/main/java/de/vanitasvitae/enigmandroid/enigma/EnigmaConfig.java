@@ -0,0 +1,98 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+/**
+ * Immutable configuration of an enigma machine (selected parts, ring settings, plugboard and
+ * reflector wiring) in compiled form, together with the position the machine was in when the
+ * configuration was taken.
+ * A configuration never changes, so it can be shared between any number of threads. The
+ * running position is held by EnigmaCursors, which are cheap to create.
+ */
+public final class EnigmaConfig
+{
+	private final String machineType;
+	private final CompiledEnigma compiled;
+	private final int initialState;
+
+	EnigmaConfig(String machineType, CompiledEnigma compiled, int initialState)
+	{
+		this.machineType = machineType;
+		this.compiled = compiled;
+		this.initialState = initialState;
+	}
+
+	/**
+	 * Return the name indicator of the machine this configuration was taken from
+	 * @return machine type
+	 */
+	public String getMachineType()
+	{
+		return machineType;
+	}
+
+	/**
+	 * Return the packed state (see Enigma.getPackedState()) the machine was in when this
+	 * configuration was taken.
+	 * @return packed state
+	 */
+	public int getInitialState()
+	{
+		return initialState;
+	}
+
+	/**
+	 * Return the number of rotors, whose rotations are stored in the packed state
+	 * @return number of rotors
+	 */
+	public int getRotorCount()
+	{
+		return compiled.getRotorCount();
+	}
+
+	/**
+	 * Return true, if the rotation of the reflector stored in the packed state takes effect
+	 * @return true if the reflector is rotatable
+	 */
+	public boolean hasRotatableReflector()
+	{
+		return compiled.hasRotatableReflector();
+	}
+
+	CompiledEnigma getCompiledEnigma()
+	{
+		return compiled;
+	}
+
+	/**
+	 * Create a new cursor starting at the position the machine was in when this configuration
+	 * was taken.
+	 * @return cursor
+	 */
+	public EnigmaCursor createCursor()
+	{
+		return new EnigmaCursor(this, initialState);
+	}
+
+	/**
+	 * Create a new cursor starting at the given position.
+	 * @param state packed state (see Enigma.getPackedState())
+	 * @return cursor
+	 */
+	public EnigmaCursor createCursor(int state)
+	{
+		return new EnigmaCursor(this, state);
+	}
+}
@@ -0,0 +1,217 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of compiled machine configurations keyed by encoded state
+ * (see Enigma.getEncodedState()).
+ * Restoring a machine from its encoded state creates all parts and compiles their tables. When
+ * the same keys are used over and over again, the cache skips all of that and returns the
+ * shared, immutable EnigmaConfig right away. The cache is bounded by the estimated memory size
+ * of the compiled tables; the least recently used configurations are evicted first.
+ * Hit, miss and eviction counts help to choose the size of the cache.
+ * The cache is thread safe.
+ */
+public class EnigmaConfigCache
+{
+	/** Default maximum memory size of the cached configurations in bytes */
+	public static final long DEFAULT_MAX_MEMORY_SIZE = 16 * 1024 * 1024;
+
+	private final long maxMemorySize;
+	private final LinkedHashMap<BigInteger, EnigmaConfig> configs =
+			new LinkedHashMap<>(16, 0.75f, true);
+	private long memorySize;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	public EnigmaConfigCache()
+	{
+		this(DEFAULT_MAX_MEMORY_SIZE);
+	}
+
+	/**
+	 * @param maxMemorySize maximum memory size of the cached configurations in bytes
+	 */
+	public EnigmaConfigCache(long maxMemorySize)
+	{
+		if (maxMemorySize <= 0) throw new IllegalArgumentException("maxMemorySize must be positive");
+		this.maxMemorySize = maxMemorySize;
+	}
+
+	/**
+	 * Return the configuration described by a hexadecimal state code
+	 * (see Enigma.createEnigmaFromCode(String)).
+	 * @param code hexadecimal encoded state
+	 * @return configuration
+	 * @throws IllegalArgumentException if the code does not describe a valid machine
+	 */
+	public EnigmaConfig get(String code)
+	{
+		BigInteger encodedState;
+		try
+		{
+			encodedState = Enigma.decodeCode(code);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Invalid state code " + code, e);
+		}
+		return get(encodedState);
+	}
+
+	/**
+	 * Return the configuration described by an encoded state. The configuration is restored and
+	 * compiled, if it is not cached yet.
+	 * @param encodedState encoded state (see Enigma.getEncodedState())
+	 * @return configuration
+	 * @throws IllegalArgumentException if the encoded state does not describe a valid machine
+	 */
+	public EnigmaConfig get(BigInteger encodedState)
+	{
+		synchronized (configs)
+		{
+			EnigmaConfig config = configs.get(encodedState);
+			if (config != null)
+			{
+				hits++;
+				return config;
+			}
+			misses++;
+		}
+
+		//Restore outside of the lock, so that other threads are not blocked meanwhile
+		Enigma enigma;
+		try
+		{
+			enigma = Enigma.createEnigmaFromEncodedState(encodedState);
+		}
+		catch (RuntimeException e)
+		{
+			throw new IllegalArgumentException("Invalid encoded state " + encodedState, e);
+		}
+		if (enigma == null) throw new IllegalArgumentException("Invalid encoded state " + encodedState);
+		EnigmaConfig config = enigma.getConfig();
+
+		synchronized (configs)
+		{
+			EnigmaConfig cached = configs.get(encodedState);
+			if (cached != null) return cached;
+			configs.put(encodedState, config);
+			memorySize += config.getCompiledEnigma().getMemorySize();
+			Iterator<Map.Entry<BigInteger, EnigmaConfig>> eldest = configs.entrySet().iterator();
+			while (memorySize > maxMemorySize && configs.size() > 1)
+			{
+				memorySize -= eldest.next().getValue().getCompiledEnigma().getMemorySize();
+				eldest.remove();
+				evictions++;
+			}
+			return config;
+		}
+	}
+
+	/**
+	 * Remove all configurations from the cache. The counters are not reset.
+	 */
+	public void clear()
+	{
+		synchronized (configs)
+		{
+			configs.clear();
+			memorySize = 0;
+		}
+	}
+
+	/**
+	 * Return the number of cached configurations.
+	 * @return number of configurations
+	 */
+	public int size()
+	{
+		synchronized (configs)
+		{
+			return configs.size();
+		}
+	}
+
+	/**
+	 * Return the estimated memory size of the cached configurations.
+	 * @return memory size in bytes
+	 */
+	public long getMemorySize()
+	{
+		synchronized (configs)
+		{
+			return memorySize;
+		}
+	}
+
+	public long getMaxMemorySize()
+	{
+		return maxMemorySize;
+	}
+
+	/**
+	 * Return how often a requested configuration was found in the cache.
+	 * @return number of hits
+	 */
+	public long getHitCount()
+	{
+		synchronized (configs)
+		{
+			return hits;
+		}
+	}
+
+	/**
+	 * Return how often a requested configuration had to be restored.
+	 * @return number of misses
+	 */
+	public long getMissCount()
+	{
+		synchronized (configs)
+		{
+			return misses;
+		}
+	}
+
+	/**
+	 * Return how often a configuration was evicted to stay within the maximum memory size.
+	 * @return number of evictions
+	 */
+	public long getEvictionCount()
+	{
+		synchronized (configs)
+		{
+			return evictions;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		synchronized (configs)
+		{
+			return "EnigmaConfigCache[size=" + configs.size() + ", memorySize=" + memorySize
+					+ "/" + maxMemorySize + ", hits=" + hits + ", misses=" + misses
+					+ ", evictions=" + evictions + "]";
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Position of a machine running on a shared EnigmaConfig.
+ * A cursor only consists of a reference to its configuration and the packed state of the moving
+ * parts, so creating one is cheap. A cursor must not be used by more than one thread at a time,
+ * but any number of cursors can use the same configuration concurrently.
+ */
+public class EnigmaCursor
+{
+	private final EnigmaConfig config;
+	private int state;
+
+	EnigmaCursor(EnigmaConfig config, int state)
+	{
+		this.config = config;
+		this.state = state;
+	}
+
+	public EnigmaConfig getConfig()
+	{
+		return config;
+	}
+
+	/**
+	 * Return the current position as packed state (see Enigma.getPackedState())
+	 * @return packed state
+	 */
+	public int getState()
+	{
+		return state;
+	}
+
+	/**
+	 * Move the cursor to the given position
+	 * @param state packed state (see Enigma.getPackedState())
+	 */
+	public void setState(int state)
+	{
+		this.state = state;
+	}
+
+	/**
+	 * Return the rotation of a rotor at the current position
+	 * @param rotor index of the rotor (0 for rotor1)
+	 * @return rotation
+	 */
+	public int getRotation(int rotor)
+	{
+		return (state >> (rotor * CompiledEnigma.BITS)) & CompiledEnigma.ROTATION_MASK;
+	}
+
+	/**
+	 * Return the rotation of the reflector at the current position
+	 * @return rotation
+	 */
+	public int getReflectorRotation()
+	{
+		return (state >> CompiledEnigma.REFLECTOR_SHIFT) & CompiledEnigma.ROTATION_MASK;
+	}
+
+	/**
+	 * Move the cursor to the next position
+	 */
+	public void nextState()
+	{
+		state = config.getCompiledEnigma().nextState(state);
+	}
+
+	/**
+	 * Encrypt / Decrypt a single char. The char must be prepared (A-Z).
+	 * @param k input char
+	 * @return encrypted char
+	 */
+	public char encryptChar(char k)
+	{
+		CompiledEnigma c = config.getCompiledEnigma();
+		state = c.nextState(state);
+		return (char) (c.encrypt(k - 65, state) + 65);
+	}
+
+	/**
+	 * Encrypt / Decrypt len prepared chars of in starting at off and write the result to out
+	 * starting at outOff (see Enigma.encrypt(char[], int, int, char[], int)).
+	 * @param in input chars
+	 * @param off offset of the first char in in
+	 * @param len number of chars to encrypt
+	 * @param out output array
+	 * @param outOff offset of the first encrypted char in out
+	 */
+	public void encrypt(char[] in, int off, int len, char[] out, int outOff)
+	{
+		if (off < 0 || len < 0 || outOff < 0 || off > in.length - len || outOff > out.length - len)
+		{
+			throw new IndexOutOfBoundsException();
+		}
+		CompiledEnigma c = config.getCompiledEnigma();
+		byte[] inner = new byte[CompiledEnigma.SIZE];
+		int s = state;
+		int composed = -1;
+		for (int i = 0; i < len; i++)
+		{
+			s = c.nextState(s);
+			if ((s & CompiledEnigma.INNER_MASK) != composed)
+			{
+				composed = s & CompiledEnigma.INNER_MASK;
+				c.composeInner(s, inner);
+			}
+			out[outOff + i] = (char) (c.encrypt(in[off + i] - 65, s & CompiledEnigma.ROTATION_MASK, inner) + 65);
+		}
+		state = s;
+	}
+
+	/**
+	 * Encrypt / Decrypt ASCII text from in to out, until in is exhausted or out is full.
+	 * Letters a-z are treated like A-Z, all other bytes are dropped. The encrypted text only
+	 * consists of the letters A-Z.
+	 * @param in input bytes
+	 * @param out output buffer
+	 */
+	public void encrypt(ByteBuffer in, ByteBuffer out)
+	{
+		CompiledEnigma c = config.getCompiledEnigma();
+		byte[] inner = new byte[CompiledEnigma.SIZE];
+		int s = state;
+		int composed = -1;
+		int i = in.position();
+		int o = out.position();
+		int inLimit = in.limit();
+		int outLimit = out.limit();
+		while (i < inLimit && o < outLimit)
+		{
+			int b = in.get(i++);
+			if (b >= 'a' && b <= 'z') b -= 'a' - 'A';
+			else if (b < 'A' || b > 'Z') continue;
+			s = c.nextState(s);
+			if ((s & CompiledEnigma.INNER_MASK) != composed)
+			{
+				composed = s & CompiledEnigma.INNER_MASK;
+				c.composeInner(s, inner);
+			}
+			out.put(o++, (byte) (c.encrypt(b - 65, s & CompiledEnigma.ROTATION_MASK, inner) + 65));
+		}
+		in.position(i);
+		out.position(o);
+		state = s;
+	}
+
+	/**
+	 * Encrypt / Decrypt a prepared String
+	 * @param w prepared text
+	 * @return encrypted text
+	 */
+	public String encryptString(String w)
+	{
+		char[] chars = w.toCharArray();
+		encrypt(chars, 0, chars.length, chars, 0);
+		return new String(chars);
+	}
+}
@@ -14,11 +14,8 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
@@ -41,7 +38,7 @@ public class Enigma_D extends Enigma {
 	{
 		super();
 		machineType = "D";
-		Log.d(MainActivity.APP_ID, "Created Enigma D");
+		LOG.fine("Created Enigma D");
 	}
 
 	@Override
@@ -67,7 +64,7 @@ public class Enigma_D extends Enigma {
 	}
 
 	@Override
-	public void nextState()
+	protected void step()
 	{
 		rotor1.rotate();
 		if (rotor1.isAtTurnoverPosition() || this.doAnomaly)
@@ -129,7 +126,31 @@ public class Enigma_D extends Enigma {
 	}
 
 	@Override
-	public void setState(EnigmaStateBundle state)
+	EntryWheel getEntryWheel()
+	{
+		return entryWheel;
+	}
+
+	@Override
+	Rotor[] getRotors()
+	{
+		return new Rotor[] {rotor1, rotor2, rotor3};
+	}
+
+	@Override
+	Reflector getReflector()
+	{
+		return reflector;
+	}
+
+	@Override
+	boolean hasRotatableReflector()
+	{
+		return true;
+	}
+
+	@Override
+	protected void applyState(EnigmaStateBundle state)
 	{
 		this.entryWheel = getEntryWheel(state.getTypeEntryWheel());
 		this.rotor1 = getRotor(state.getTypeRotor1(), state.getRotationRotor1(), state.getRingSettingRotor1());
@@ -169,36 +190,29 @@ public class Enigma_D extends Enigma {
 	}
 
 	@Override
-	public void restoreState(BigInteger s, int protocol_version)
+	protected void applyEncodedState(BigInteger s, int protocol_version)
 	{
 		switch(protocol_version)
 		{
 			case 1:
-				int rot1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rotRef = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ringRef = getValue(s, 26);
-				s = removeDigit(s, 26);
+				EncodedStateReader reader = new EncodedStateReader(s);
+				int rot1 = reader.next(26);
+				int ring1 = reader.next(26);
+				int rot2 = reader.next(26);
+				int ring2 = reader.next(26);
+				int rot3 = reader.next(26);
+				int ring3 = reader.next(26);
+				int rotRef = reader.next(26);
+				int ringRef = reader.next(26);
 
 				this.rotor1 = getRotor(0, rot1, ring1);
 				this.rotor2 = getRotor(1, rot2, ring2);
 				this.rotor3 = getRotor(2, rot3, ring3);
 				this.reflector = getReflector(0, rotRef, ringRef);
-				this.reflector.setConfiguration(s);
+				this.reflector.setConfiguration(reader.remainder());
 				break;
 
-			default: Log.e(MainActivity.APP_ID, "Unsupported protocol version "+protocol_version);
+			default: LOG.severe("Unsupported protocol version "+protocol_version);
 		}
 	}
 
@@ -215,7 +229,7 @@ public class Enigma_D extends Enigma {
 		s = addDigit(s, rotor1.getRotation(), 26);
 
 		s = addDigit(s, 6, 20); //Machine #6
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 		return s;
 	}
 }
@@ -14,11 +14,8 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
 import de.vanitasvitae.enigmandroid.enigma.parts.Rotor;
@@ -39,7 +36,7 @@ public class Enigma_G31 extends Enigma
 	{
 		super();
 		machineType = "G31";
-		Log.d(MainActivity.APP_ID, "Created Enigma G31");
+		LOG.fine("Created Enigma G31");
 	}
 
 	@Override
@@ -63,7 +60,7 @@ public class Enigma_G31 extends Enigma
 	}
 
 	@Override
-	public void nextState()
+	protected void step()
 	{
 		rotor1.rotate();
 		if (rotor1.isAtTurnoverPosition())
@@ -131,7 +128,37 @@ public class Enigma_G31 extends Enigma
 	}
 
 	@Override
-	public void setState(EnigmaStateBundle state)
+	EntryWheel getEntryWheel()
+	{
+		return entryWheel;
+	}
+
+	@Override
+	Rotor[] getRotors()
+	{
+		return new Rotor[] {rotor1, rotor2, rotor3};
+	}
+
+	@Override
+	Reflector getReflector()
+	{
+		return reflector;
+	}
+
+	@Override
+	boolean hasRotatableReflector()
+	{
+		return true;
+	}
+
+	@Override
+	boolean hasSteppingReflector()
+	{
+		return true;
+	}
+
+	@Override
+	protected void applyState(EnigmaStateBundle state)
 	{
 		this.entryWheel = getEntryWheel(state.getTypeEntryWheel());
 		this.rotor1 = getRotor(state.getTypeRotor1(), state.getRotationRotor1(), state.getRingSettingRotor1());
@@ -167,33 +194,24 @@ public class Enigma_G31 extends Enigma
 	}
 
 	@Override
-	public void restoreState(BigInteger s, int protocol_version)
+	protected void applyEncodedState(BigInteger s, int protocol_version)
 	{
 		switch (protocol_version)
 		{
 			case 1:
-				int r1 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-				int r2 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-				int r3 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-
-				int rot1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rotRef = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ringRef = getValue(s, 26);
+				EncodedStateReader reader = new EncodedStateReader(s);
+				int r1 = reader.next(availableRotors.size());
+				int r2 = reader.next(availableRotors.size());
+				int r3 = reader.next(availableRotors.size());
+
+				int rot1 = reader.next(26);
+				int ring1 = reader.next(26);
+				int rot2 = reader.next(26);
+				int ring2 = reader.next(26);
+				int rot3 = reader.next(26);
+				int ring3 = reader.next(26);
+				int rotRef = reader.next(26);
+				int ringRef = reader.next(26);
 
 
 				this.entryWheel = getEntryWheel(0);
@@ -203,7 +221,7 @@ public class Enigma_G31 extends Enigma
 				this.reflector = getReflector(0, rotRef, ringRef);
 				break;
 
-			default: Log.e(MainActivity.APP_ID, "Unsupported protocol version "+protocol_version);
+			default: LOG.severe("Unsupported protocol version "+protocol_version);
 		}
 	}
 
@@ -224,7 +242,7 @@ public class Enigma_G31 extends Enigma
 		s = addDigit(s, rotor1.getIndex(), availableRotors.size());
 
 		s = addDigit(s, 3, 20); //Machine #3
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 		return s;
 	}
 }
@@ -14,11 +14,8 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
@@ -42,7 +39,7 @@ public class Enigma_I extends Enigma
 	{
 		super();
 		machineType = "I";
-		Log.d(MainActivity.APP_ID, "Created Enigma I");
+		LOG.fine("Created Enigma I");
 	}
 
 	@Override
@@ -70,7 +67,7 @@ public class Enigma_I extends Enigma
 	}
 
 	@Override
-	public void nextState()
+	protected void step()
 	{
 		rotor1.rotate();
 		if (rotor1.isAtTurnoverPosition() || this.doAnomaly)
@@ -139,7 +136,31 @@ public class Enigma_I extends Enigma
 	}
 
 	@Override
-	public void setState(EnigmaStateBundle state)
+	EntryWheel getEntryWheel()
+	{
+		return entryWheel;
+	}
+
+	@Override
+	Rotor[] getRotors()
+	{
+		return new Rotor[] {rotor1, rotor2, rotor3};
+	}
+
+	@Override
+	Reflector getReflector()
+	{
+		return reflector;
+	}
+
+	@Override
+	Plugboard getPlugboard()
+	{
+		return plugboard;
+	}
+
+	@Override
+	protected void applyState(EnigmaStateBundle state)
 	{
 		plugboard.setConfiguration(state.getConfigurationPlugboard());
 		entryWheel = getEntryWheel(state.getTypeEntryWheel());
@@ -176,31 +197,22 @@ public class Enigma_I extends Enigma
 	}
 
 	@Override
-	public void restoreState(BigInteger s, int protocol_version)
+	protected void applyEncodedState(BigInteger s, int protocol_version)
 	{
 		switch (protocol_version)
 		{
 			case 1:
-				int r1 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-				int r2 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-				int r3 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-				int ref = getValue(s, availableReflectors.size());
-				s = removeDigit(s, availableReflectors.size());
-				int rot1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring3 = getValue(s, 26);
-				s = removeDigit(s, 26);
+				EncodedStateReader reader = new EncodedStateReader(s);
+				int r1 = reader.next(availableRotors.size());
+				int r2 = reader.next(availableRotors.size());
+				int r3 = reader.next(availableRotors.size());
+				int ref = reader.next(availableReflectors.size());
+				int rot1 = reader.next(26);
+				int ring1 = reader.next(26);
+				int rot2 = reader.next(26);
+				int ring2 = reader.next(26);
+				int rot3 = reader.next(26);
+				int ring3 = reader.next(26);
 
 				this.entryWheel = getEntryWheel(0);
 				this.rotor1 = getRotor(r1, rot1, ring1);
@@ -209,10 +221,10 @@ public class Enigma_I extends Enigma
 				this.reflector = getReflector(ref);
 
 				this.plugboard = new Plugboard();
-				plugboard.setConfiguration(s);
+				plugboard.setConfiguration(reader.remainder());
 				break;
 
-			default: Log.e(MainActivity.APP_ID, "Unsupported protocol version "+protocol_version);
+			default: LOG.severe("Unsupported protocol version "+protocol_version);
 		}
 	}
 
@@ -232,7 +244,7 @@ public class Enigma_I extends Enigma
 		s = addDigit(s, rotor1.getIndex(), availableRotors.size());
 
 		s = addDigit(s, 0, 20); //Machine #0
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 
 		return s;
 	}
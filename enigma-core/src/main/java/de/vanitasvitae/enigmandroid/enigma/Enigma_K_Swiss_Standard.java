@@ -14,11 +14,8 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
 import de.vanitasvitae.enigmandroid.enigma.parts.Rotor;
@@ -33,7 +30,7 @@ public class Enigma_K_Swiss_Standard extends Enigma_K
 	{
 		super();
 		machineType = "KS";
-		Log.d(MainActivity.APP_ID, "Created Enigma KS");
+		LOG.fine("Created Enigma KS");
 	}
 
 	@Override
@@ -63,7 +60,7 @@ public class Enigma_K_Swiss_Standard extends Enigma_K
 		s = addDigit(s, rotor1.getIndex(), availableRotors.size());
 
 		s = addDigit(s, 8, 20); //Machine #8
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 
 		return s;
 	}
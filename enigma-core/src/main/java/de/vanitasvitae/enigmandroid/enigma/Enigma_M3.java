@@ -14,11 +14,8 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
@@ -34,7 +31,7 @@ public class Enigma_M3 extends Enigma_I
 	{
 		super();
 		machineType = "M3";
-		Log.d(MainActivity.APP_ID, "Created Enigma M3");
+		LOG.fine("Created Enigma M3");
 	}
 
 	@Override
@@ -92,7 +89,7 @@ public class Enigma_M3 extends Enigma_I
 		s = addDigit(s, rotor2.getIndex(), availableRotors.size());
 		s = addDigit(s, rotor1.getIndex(), availableRotors.size());
 		s = addDigit(s, 1, 20); //Machine #1
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 
 		return s;
 	}
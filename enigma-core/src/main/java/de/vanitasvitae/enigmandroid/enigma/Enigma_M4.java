@@ -14,12 +14,9 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 import java.util.ArrayList;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
@@ -47,7 +44,7 @@ public class Enigma_M4 extends Enigma
 	{
 		super();
 		machineType = "M4";
-		Log.d(MainActivity.APP_ID, "Created Enigma M4");
+		LOG.fine("Created Enigma M4");
 	}
 
 	private void addAvailableThinRotor(Rotor r)
@@ -72,7 +69,7 @@ public class Enigma_M4 extends Enigma
 	@Override
 	protected void establishAvailableParts()
 	{
-		Log.d(MainActivity.APP_ID, "Established");
+		LOG.fine("Established");
 		addAvailableEntryWheel(new EntryWheel.EntryWheel_ABCDEF());
 		addAvailableRotor(new Rotor.Rotor_I(0, 0));
 		addAvailableRotor(new Rotor.Rotor_II(0,0));
@@ -91,7 +88,7 @@ public class Enigma_M4 extends Enigma
 	@Override
 	public void initialize()
 	{
-		Log.d(MainActivity.APP_ID, "Initialized");
+		LOG.fine("Initialized");
 		this.plugboard = new Plugboard();
 		this.entryWheel = getEntryWheel(0);
 		this.rotor1 = getRotor(0, 0, 0);
@@ -107,7 +104,7 @@ public class Enigma_M4 extends Enigma
 	 * This rotates the first rotor and eventually also the second/third.
 	 * Also this method handles the anomaly in case it should happen.
 	 */
-	public void nextState()
+	protected void step()
 	{
 		//Rotate rotors
 		rotor1.rotate();
@@ -202,7 +199,31 @@ public class Enigma_M4 extends Enigma
 	}
 
 	@Override
-	public void setState(EnigmaStateBundle state)
+	EntryWheel getEntryWheel()
+	{
+		return entryWheel;
+	}
+
+	@Override
+	Rotor[] getRotors()
+	{
+		return new Rotor[] {rotor1, rotor2, rotor3, rotor4};
+	}
+
+	@Override
+	Reflector getReflector()
+	{
+		return reflector;
+	}
+
+	@Override
+	Plugboard getPlugboard()
+	{
+		return plugboard;
+	}
+
+	@Override
+	protected void applyState(EnigmaStateBundle state)
 	{
 		rotor1 = getRotor(state.getTypeRotor1(), state.getRotationRotor1(), state.getRingSettingRotor1());
 		rotor2 = getRotor(state.getTypeRotor2(), state.getRotationRotor2(), state.getRingSettingRotor2());
@@ -242,42 +263,28 @@ public class Enigma_M4 extends Enigma
 	}
 
 	@Override
-	public void restoreState(BigInteger s, int protocol_version)
+	protected void applyEncodedState(BigInteger s, int protocol_version)
 	{
 		switch (protocol_version)
 		{
 			case 1:
-				int r1 = getValue(s, availableRotors.size());
-				s = removeDigit(s, availableRotors.size());
-				int r2 = getValue(s, availableRotors.size());
-				s = removeDigit(s,availableRotors.size());
-				int r3 = getValue(s, availableRotors.size());
-				s = removeDigit(s,availableRotors.size());
-				int r4 = getValue(s, availableThinRotors.size());
-				s = removeDigit(s,availableThinRotors.size());
-				int ref = getValue(s, availableReflectors.size());
-				s = removeDigit(s,availableReflectors.size());
-
-				int rot1 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int ring1 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int rot2 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int ring2 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int rot3 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int ring3 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int rot4 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int ring4 = getValue(s, 26);
-				s = removeDigit(s,26);
-				int rotRef = getValue(s, 26);
-				s = removeDigit(s,26);
-				int ringRef = getValue(s, 26);
-				s = removeDigit(s, 26);
+				EncodedStateReader reader = new EncodedStateReader(s);
+				int r1 = reader.next(availableRotors.size());
+				int r2 = reader.next(availableRotors.size());
+				int r3 = reader.next(availableRotors.size());
+				int r4 = reader.next(availableThinRotors.size());
+				int ref = reader.next(availableReflectors.size());
+
+				int rot1 = reader.next(26);
+				int ring1 = reader.next(26);
+				int rot2 = reader.next(26);
+				int ring2 = reader.next(26);
+				int rot3 = reader.next(26);
+				int ring3 = reader.next(26);
+				int rot4 = reader.next(26);
+				int ring4 = reader.next(26);
+				int rotRef = reader.next(26);
+				int ringRef = reader.next(26);
 
 				this.rotor1 = getRotor(r1, rot1, ring1);
 				this.rotor2 = getRotor(r2, rot2, ring2);
@@ -285,10 +292,10 @@ public class Enigma_M4 extends Enigma
 				this.rotor4 = getThinRotor(r4, rot4, ring4);
 				this.reflector = getReflector(ref, rotRef, ringRef);
 				this.plugboard = new Plugboard();
-				plugboard.setConfiguration(s);
+				plugboard.setConfiguration(reader.remainder());
 				break;
 
-			default: Log.e(MainActivity.APP_ID, "Unsupported protocol version "+protocol_version);
+			default: LOG.severe("Unsupported protocol version "+protocol_version);
 		}
 	}
 
@@ -313,7 +320,7 @@ public class Enigma_M4 extends Enigma
 		s = addDigit(s, rotor1.getIndex(), availableRotors.size());
 
 		s = addDigit(s, 2, 20);
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 
 		return s;
 	}
@@ -14,11 +14,8 @@
  */
 package de.vanitasvitae.enigmandroid.enigma;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
 import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
 import de.vanitasvitae.enigmandroid.enigma.parts.Rotor;
@@ -40,7 +37,7 @@ public class Enigma_R extends Enigma
 	{
 		super();
 		machineType = "R";
-		Log.d(MainActivity.APP_ID, "Created Enigma R");
+		LOG.fine("Created Enigma R");
 	}
 
 	@Override
@@ -64,7 +61,7 @@ public class Enigma_R extends Enigma
 	}
 
 	@Override
-	public void nextState()
+	protected void step()
 	{
 		rotor1.rotate();
 		if (rotor1.isAtTurnoverPosition() || this.doAnomaly)
@@ -130,7 +127,31 @@ public class Enigma_R extends Enigma
 	}
 
 	@Override
-	public void setState(EnigmaStateBundle state)
+	EntryWheel getEntryWheel()
+	{
+		return entryWheel;
+	}
+
+	@Override
+	Rotor[] getRotors()
+	{
+		return new Rotor[] {rotor1, rotor2, rotor3};
+	}
+
+	@Override
+	Reflector getReflector()
+	{
+		return reflector;
+	}
+
+	@Override
+	boolean hasRotatableReflector()
+	{
+		return true;
+	}
+
+	@Override
+	protected void applyState(EnigmaStateBundle state)
 	{
 		this.entryWheel = getEntryWheel(state.getTypeEntryWheel());
 		this.rotor1 = getRotor(state.getTypeRotor1(), state.getRotationRotor1(), state.getRingSettingRotor1());
@@ -165,34 +186,24 @@ public class Enigma_R extends Enigma
 	}
 
 	@Override
-	public void restoreState(BigInteger s, int protocol_version)
+	protected void applyEncodedState(BigInteger s, int protocol_version)
 	{
 		switch (protocol_version)
 		{
 			case 1:
-				int r1 = getValue(s,availableRotors.size());
-				s = removeDigit(s,availableRotors.size());
-				int r2 = getValue(s,availableRotors.size());
-				s = removeDigit(s,availableRotors.size());
-				int r3 = getValue(s,availableRotors.size());
-				s = removeDigit(s,availableRotors.size());
-
-				int rot1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring1 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring2 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rot3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ring3 = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int rotRef = getValue(s, 26);
-				s = removeDigit(s, 26);
-				int ringRef = getValue(s, 26);
-				s = removeDigit(s, 26);
+				EncodedStateReader reader = new EncodedStateReader(s);
+				int r1 = reader.next(availableRotors.size());
+				int r2 = reader.next(availableRotors.size());
+				int r3 = reader.next(availableRotors.size());
+
+				int rot1 = reader.next(26);
+				int ring1 = reader.next(26);
+				int rot2 = reader.next(26);
+				int ring2 = reader.next(26);
+				int rot3 = reader.next(26);
+				int ring3 = reader.next(26);
+				int rotRef = reader.next(26);
+				int ringRef = reader.next(26);
 
 				this.entryWheel = getEntryWheel(0);
 				this.rotor1 = getRotor(r1, rot1, ring1);
@@ -201,7 +212,7 @@ public class Enigma_R extends Enigma
 				this.reflector = getReflector(0, rotRef, ringRef);
 				break;
 
-			default: Log.e(MainActivity.APP_ID, "Unsupported protocol version "+protocol_version);
+			default: LOG.severe("Unsupported protocol version "+protocol_version);
 		}
 
 	}
@@ -224,7 +235,7 @@ public class Enigma_R extends Enigma
 		s = addDigit(s, rotor1.getIndex(), availableRotors.size());
 
 		s = addDigit(s, 10, 20); //Machine #10
-		s = addDigit(s, protocol_version, MainActivity.max_protocol_version);
+		s = addDigit(s, protocol_version, max_protocol_version);
 
 		return s;
 	}
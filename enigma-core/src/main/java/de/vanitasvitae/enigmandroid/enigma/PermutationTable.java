@@ -0,0 +1,170 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import de.vanitasvitae.enigmandroid.enigma.parts.EntryWheel;
+import de.vanitasvitae.enigmandroid.enigma.parts.Plugboard;
+import de.vanitasvitae.enigmandroid.enigma.parts.Reflector;
+import de.vanitasvitae.enigmandroid.enigma.parts.Rotor;
+
+/**
+ * Table of the complete permutation of a configured machine for every possible position of the
+ * moving parts (the three rotors and, for the G31 family, the stepping reflector).
+ * Once it is built, encrypting a char only takes a single lookup, no matter at which position a
+ * message starts. The table is built lazily on first use and never modified afterwards, so it
+ * can be shared between any number of machines and threads.
+ *
+ * The table takes 26^4 bytes (about 446 KiB) for machines with a fixed reflector and 26^5 bytes
+ * (about 11.3 MiB) for machines with a stepping reflector.
+ */
+public class PermutationTable
+{
+	/** Default maximum size of a table in bytes */
+	public static final int DEFAULT_MEMORY_BUDGET = 16 * 1024 * 1024;
+
+	private static final int SIZE = CompiledEnigma.SIZE;
+	private static final int BITS = CompiledEnigma.BITS;
+	private static final int MASK = CompiledEnigma.ROTATION_MASK;
+
+	private final CompiledEnigma compiled;
+	private final boolean steppingReflector;
+	/** Bits of a packed state belonging to parts, that don't move while encrypting */
+	private final int fixedMask;
+	/** Rotations of the parts that don't move (fourth rotor and non-stepping reflector) */
+	private final int fixedState;
+
+	private volatile byte[] table;
+
+	PermutationTable(CompiledEnigma compiled, int state)
+	{
+		this.compiled = compiled;
+		this.steppingReflector = compiled.hasSteppingReflector();
+		int moving = (1 << (3 * BITS)) - 1 | CompiledEnigma.ANOMALY;
+		if (steppingReflector) moving |= MASK << CompiledEnigma.REFLECTOR_SHIFT;
+		this.fixedMask = ~moving;
+		this.fixedState = state & fixedMask;
+	}
+
+	/**
+	 * Return the number of bytes a table for a machine with or without stepping reflector takes.
+	 * @param steppingReflector true, if the reflector of the machine steps
+	 * @return size in bytes
+	 */
+	public static int getRequiredBytes(boolean steppingReflector)
+	{
+		return SIZE * SIZE * SIZE * SIZE * (steppingReflector ? SIZE : 1);
+	}
+
+	/**
+	 * Return the number of bytes this table takes once it is built.
+	 * @return size in bytes
+	 */
+	public int getSize()
+	{
+		return getRequiredBytes(steppingReflector);
+	}
+
+	/**
+	 * Return the table and build it, if that did not happen yet.
+	 * Entry index(state) + x holds the encryption of x at the given position.
+	 * @return table
+	 */
+	byte[] getTable()
+	{
+		byte[] t = table;
+		if (t == null)
+		{
+			synchronized (this)
+			{
+				t = table;
+				if (t == null)
+				{
+					t = build();
+					table = t;
+				}
+			}
+		}
+		return t;
+	}
+
+	private byte[] build()
+	{
+		byte[] t = new byte[getSize()];
+		byte[] inner = new byte[SIZE];
+		int reflectorPositions = steppingReflector ? SIZE : 1;
+		for (int ref = 0; ref < reflectorPositions; ref++)
+		{
+			for (int r3 = 0; r3 < SIZE; r3++)
+			{
+				for (int r2 = 0; r2 < SIZE; r2++)
+				{
+					int state = fixedState | r3 << (2 * BITS) | r2 << BITS;
+					if (steppingReflector) state |= ref << CompiledEnigma.REFLECTOR_SHIFT;
+					compiled.composeInner(state, inner);
+					for (int r1 = 0; r1 < SIZE; r1++)
+					{
+						int offset = index(state | r1);
+						for (int x = 0; x < SIZE; x++)
+						{
+							t[offset + x] = (byte) compiled.encrypt(x, r1, inner);
+						}
+					}
+				}
+			}
+		}
+		return t;
+	}
+
+	/**
+	 * Return the offset of the permutation for the given position in the table.
+	 * @param state packed state
+	 * @return offset
+	 */
+	int index(int state)
+	{
+		int i = (((state >> (2 * BITS)) & MASK) * SIZE + ((state >> BITS) & MASK)) * SIZE
+				+ (state & MASK);
+		if (steppingReflector)
+		{
+			i += ((state >> CompiledEnigma.REFLECTOR_SHIFT) & MASK) * SIZE * SIZE * SIZE;
+		}
+		return i * SIZE;
+	}
+
+	/**
+	 * Return the compiled tables this table is built from.
+	 * @return compiled tables
+	 */
+	CompiledEnigma getCompiledEnigma()
+	{
+		return compiled;
+	}
+
+	/**
+	 * Return true, if the table was built for parts configured exactly like the given ones.
+	 * @param plugboard plugboard or null
+	 * @param entryWheel entry wheel
+	 * @param rotors rotors
+	 * @param reflector reflector
+	 * @param state packed state of the parts
+	 * @return true if the table can be used for the given parts
+	 */
+	boolean isBuiltFrom(Plugboard plugboard, EntryWheel entryWheel, Rotor[] rotors,
+						Reflector reflector, int state)
+	{
+		return (state & fixedMask) == fixedState
+				&& compiled.isCompiledFrom(plugboard, entryWheel, rotors, reflector);
+	}
+}
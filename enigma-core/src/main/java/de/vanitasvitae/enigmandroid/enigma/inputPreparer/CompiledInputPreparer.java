@@ -0,0 +1,92 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.inputPreparer;
+
+import java.util.Arrays;
+
+/**
+ * InputPreparer that compiles a chain of InputPreparers into a per-character
+ * transliteration table. Every stage of the chain only ever looks at single chars,
+ * so the replacement of each char can be computed once up front. Preparing a message
+ * is then a single linear pass over the input.
+ * Replacements for the Latin-1 range are computed when the preparer is created. All other
+ * chars are rare in messages and get sent through the chain one by one, so the preparer never
+ * changes after its creation and can be shared between threads.
+ */
+public class CompiledInputPreparer extends InputPreparer
+{
+	private static final int TABLE_SIZE = 256;
+
+	private final InputPreparer chain;
+	private final char[][] table = new char[TABLE_SIZE][];
+
+	/**
+	 * @param chain chain of InputPreparers whose behaviour gets compiled
+	 */
+	public CompiledInputPreparer(InputPreparer chain)
+	{
+		this.chain = chain;
+		for (int c = 0; c < TABLE_SIZE; c++)
+		{
+			table[c] = chain.prepareString(String.valueOf((char) c)).toCharArray();
+		}
+	}
+
+	/**
+	 * Most chars are replaced by at most one char, so the output is written into a buffer of the
+	 * length of the input, which only grows if numbers or umlauts get spelled out. The String
+	 * is created from that buffer with a single copy.
+	 */
+	protected String prepare(String in)
+	{
+		char[] out = new char[in.length()];
+		int pos = 0;
+		for (int i = 0; i < in.length(); i++)
+		{
+			char c = in.charAt(i);
+			char[] r = c < TABLE_SIZE ? table[c] : chain.prepareString(String.valueOf(c)).toCharArray();
+			if (pos + r.length > out.length)
+			{
+				out = Arrays.copyOf(out, Math.max(2 * out.length, pos + r.length));
+			}
+			for (char x : r) out[pos++] = x;
+		}
+		return new String(out, 0, pos);
+	}
+
+	/**
+	 * Prepare len chars of src starting at off and write the result to the start of dst. Unlike
+	 * prepareString(String), this allocates no memory for chars in the Latin-1 range, so streams
+	 * can be prepared chunk by chunk into the same buffer.
+	 * @param src raw chars
+	 * @param off offset of the first char in src
+	 * @param len number of chars to prepare
+	 * @param dst array the prepared chars are written to
+	 * @return number of prepared chars in dst or -1 if dst is too small to hold them
+	 */
+	public int prepare(char[] src, int off, int len, char[] dst)
+	{
+		if (off < 0 || len < 0 || off > src.length - len) throw new IndexOutOfBoundsException();
+		int pos = 0;
+		for (int i = off; i < off + len; i++)
+		{
+			char c = src[i];
+			char[] r = c < TABLE_SIZE ? table[c] : chain.prepareString(String.valueOf(c)).toCharArray();
+			if (pos + r.length > dst.length) return -1;
+			for (char x : r) dst[pos++] = x;
+		}
+		return pos;
+	}
+}
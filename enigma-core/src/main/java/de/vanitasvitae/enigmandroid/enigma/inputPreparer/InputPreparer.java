@@ -14,13 +14,6 @@
  */
 package de.vanitasvitae.enigmandroid.enigma.inputPreparer;
 
-import android.content.SharedPreferences;
-import android.preference.PreferenceManager;
-
-import de.vanitasvitae.enigmandroid.MainActivity;
-import de.vanitasvitae.enigmandroid.R;
-import de.vanitasvitae.enigmandroid.SettingsActivity;
-
 /**
  * Preparer class that prepares input text to only consist of [A..Z]
  * Copyright (C) 2015  Paul Schaub
@@ -37,17 +30,19 @@ public abstract class InputPreparer {
 
     protected abstract String prepare(String input);
 
-    public static InputPreparer createInputPreparer()
+    /**
+     * Create a chain of InputPreparers, compiled into a single transliteration table.
+     * @param replaceSpecialChars replace special characters like umlauts
+     * @param numericLanguage language that numbers get spelled in ("de", "en", "fr", "sp", "it")
+     *                        or null to drop numbers
+     * @return InputPreparer
+     */
+    public static InputPreparer createInputPreparer(boolean replaceSpecialChars, String numericLanguage)
     {
-        MainActivity main = (MainActivity) MainActivity.ActivitySingleton.getInstance().getActivity();
-        SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(main);
-
-        boolean replaceSpecialChars = sharedPreferences.getBoolean(SettingsActivity.PREF_REPLACE_SPECIAL_CHARACTERS, true);
-        String num_lang = sharedPreferences.getString(SettingsActivity.PREF_NUMERIC_LANGUAGE, main.getResources().
-                getStringArray(R.array.pref_alias_numeric_spelling_language)[0]);
         InputPreparer inPrep = new RemoveIllegalCharacters();
         if(replaceSpecialChars) inPrep = new ReplaceSpecialCharacters(inPrep);
-        switch (num_lang)
+        if(numericLanguage == null) return new CompiledInputPreparer(inPrep);
+        switch (numericLanguage)
         {
             case "de": inPrep = new ReplaceNumbersGerman(inPrep);
                 break;
@@ -62,7 +57,7 @@ public abstract class InputPreparer {
             default:
                 break;
         }
-        return inPrep;
+        return new CompiledInputPreparer(inPrep);
     }
 
     public static class ReplaceSpecialCharacters extends InputPreparer {
@@ -242,12 +237,14 @@ public abstract class InputPreparer {
 
         protected String prepare(String in)
         {
-            String out = "";
-            for(char c : in.toUpperCase().toCharArray())
+            String upper = in.toUpperCase();
+            StringBuilder out = new StringBuilder(upper.length());
+            for(int i=0; i<upper.length(); i++)
             {
-                if(c>=65 && c<=90) out = out+c;
+                char c = upper.charAt(i);
+                if(c>=65 && c<=90) out.append(c);
             }
-            return out;
+            return out.toString();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * InputStream that decodes the text of another InputStream, prepares and encrypts it on the fly.
+ * The encrypted text only consists of the chars A..Z, so every byte of this stream is an
+ * ASCII letter.
+ * Like the machine itself, an EnigmaInputStream is not thread safe.
+ */
+public class EnigmaInputStream extends InputStream
+{
+	private final EnigmaReader reader;
+	private final char[] chars = new char[StreamCipher.BUFFER_SIZE];
+
+	/**
+	 * Create an EnigmaInputStream that decodes UTF-8, uppercases the text, replaces special
+	 * characters and drops all characters besides A..Z.
+	 * @param in underlying stream
+	 * @param enigma machine
+	 */
+	public EnigmaInputStream(InputStream in, Enigma enigma)
+	{
+		this(in, Charset.forName("UTF-8"), enigma, StreamCipher.createDefaultInputPreparer());
+	}
+
+	/**
+	 * Create an EnigmaInputStream.
+	 * @param in underlying stream
+	 * @param charset charset the underlying stream is encoded in
+	 * @param enigma machine
+	 * @param preparer InputPreparer that prepares the text before it gets encrypted
+	 */
+	public EnigmaInputStream(InputStream in, Charset charset, Enigma enigma, InputPreparer preparer)
+	{
+		this.reader = new EnigmaReader(new InputStreamReader(in, charset), enigma, preparer);
+	}
+
+	@Override
+	public int read() throws IOException
+	{
+		int c = reader.read(chars, 0, 1);
+		return c == -1 ? -1 : chars[0];
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException
+	{
+		if (off < 0 || len < 0 || off > b.length - len) throw new IndexOutOfBoundsException();
+		if (len == 0) return 0;
+		int n = reader.read(chars, 0, Math.min(len, chars.length));
+		for (int i = 0; i < n; i++)
+		{
+			b[off + i] = (byte) chars[i];
+		}
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reader.close();
+	}
+}
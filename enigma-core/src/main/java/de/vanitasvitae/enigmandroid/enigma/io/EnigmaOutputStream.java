@@ -0,0 +1,142 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * OutputStream that decodes the bytes written to it, prepares and encrypts the text on the fly
+ * and writes the encrypted text as ASCII letters to another OutputStream.
+ * Chars that are split across several calls to write() are decoded correctly. Malformed input
+ * is replaced and thus dropped by the preparation.
+ * Like the machine itself, an EnigmaOutputStream is not thread safe.
+ */
+public class EnigmaOutputStream extends OutputStream
+{
+	private final EnigmaWriter writer;
+	private final CharsetDecoder decoder;
+	private final ByteBuffer bytes = ByteBuffer.allocate(StreamCipher.BUFFER_SIZE);
+	private final CharBuffer chars = CharBuffer.allocate(StreamCipher.BUFFER_SIZE);
+	private final byte[] single = new byte[1];
+	private boolean closed;
+
+	/**
+	 * Create an EnigmaOutputStream that decodes UTF-8, uppercases the text, replaces special
+	 * characters and drops all characters besides A..Z.
+	 * @param out underlying stream
+	 * @param enigma machine
+	 */
+	public EnigmaOutputStream(OutputStream out, Enigma enigma)
+	{
+		this(out, Charset.forName("UTF-8"), enigma, StreamCipher.createDefaultInputPreparer());
+	}
+
+	/**
+	 * Create an EnigmaOutputStream.
+	 * @param out underlying stream
+	 * @param charset charset of the bytes that get written to this stream
+	 * @param enigma machine
+	 * @param preparer InputPreparer that prepares the text before it gets encrypted
+	 */
+	public EnigmaOutputStream(OutputStream out, Charset charset, Enigma enigma,
+							  InputPreparer preparer)
+	{
+		this.writer = new EnigmaWriter(new OutputStreamWriter(out, Charset.forName("US-ASCII")),
+				enigma, preparer);
+		this.decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	@Override
+	public void write(int b) throws IOException
+	{
+		single[0] = (byte) b;
+		write(single, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException
+	{
+		if (closed) throw new IOException("Stream closed");
+		if (off < 0 || len < 0 || off > b.length - len) throw new IndexOutOfBoundsException();
+		while (len > 0)
+		{
+			int n = Math.min(len, bytes.remaining());
+			bytes.put(b, off, n);
+			off += n;
+			len -= n;
+			decode(false);
+		}
+	}
+
+	/**
+	 * Decode the buffered bytes and pass the chars on to the writer.
+	 * Bytes of an incomplete char stay in the buffer, unless the end of the input is reached.
+	 * @param endOfInput true if no more bytes will follow
+	 * @throws IOException if the underlying stream fails
+	 */
+	private void decode(boolean endOfInput) throws IOException
+	{
+		bytes.flip();
+		CoderResult result;
+		do
+		{
+			result = decoder.decode(bytes, chars, endOfInput);
+			writeChars();
+		}
+		while (result.isOverflow());
+		bytes.compact();
+	}
+
+	private void writeChars() throws IOException
+	{
+		chars.flip();
+		writer.write(chars.array(), chars.arrayOffset(), chars.limit());
+		chars.clear();
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		if (closed) throw new IOException("Stream closed");
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (closed) return;
+		decode(true);
+		while (decoder.flush(chars).isOverflow())
+		{
+			writeChars();
+		}
+		writeChars();
+		closed = true;
+		writer.close();
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * Reader that prepares and encrypts the text of another Reader on the fly.
+ * Text is read in chunks of fixed size, so the memory use does not depend on the length of the
+ * text. Every char that is read steps the rotors of the wrapped machine.
+ * Like the machine itself, an EnigmaReader is not thread safe.
+ */
+public class EnigmaReader extends Reader
+{
+	private final Reader in;
+	private final StreamCipher cipher;
+	private final char[] raw = new char[StreamCipher.BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private boolean closed;
+
+	/**
+	 * Create an EnigmaReader that uppercases the text, replaces special characters and drops
+	 * all characters besides A..Z.
+	 * @param in underlying reader
+	 * @param enigma machine
+	 */
+	public EnigmaReader(Reader in, Enigma enigma)
+	{
+		this(in, enigma, StreamCipher.createDefaultInputPreparer());
+	}
+
+	/**
+	 * Create an EnigmaReader.
+	 * @param in underlying reader
+	 * @param enigma machine
+	 * @param preparer InputPreparer that prepares the text before it gets encrypted
+	 */
+	public EnigmaReader(Reader in, Enigma enigma, InputPreparer preparer)
+	{
+		super(in);
+		this.in = in;
+		this.cipher = new StreamCipher(enigma, preparer);
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException
+	{
+		if (closed) throw new IOException("Stream closed");
+		if (off < 0 || len < 0 || off > cbuf.length - len) throw new IndexOutOfBoundsException();
+		if (len == 0) return 0;
+		if (position == limit && !fill()) return -1;
+		int n = Math.min(len, limit - position);
+		System.arraycopy(cipher.buffer, position, cbuf, off, n);
+		position += n;
+		return n;
+	}
+
+	@Override
+	public boolean ready() throws IOException
+	{
+		if (closed) throw new IOException("Stream closed");
+		return position < limit || in.ready();
+	}
+
+	/**
+	 * Read the next chunk that is not empty after preparation.
+	 * @return false if the end of the underlying reader is reached
+	 * @throws IOException if the underlying reader fails
+	 */
+	private boolean fill() throws IOException
+	{
+		int length = 0;
+		while (length == 0)
+		{
+			int n = in.read(raw, 0, raw.length);
+			if (n == -1) return false;
+			length = cipher.process(raw, 0, n);
+		}
+		position = 0;
+		limit = length;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		in.close();
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * Writer that prepares and encrypts text on the fly and writes the result to another Writer.
+ * Text is processed in chunks of fixed size, so the memory use does not depend on the length
+ * of the text. Every char that is written steps the rotors of the wrapped machine.
+ * Like the machine itself, an EnigmaWriter is not thread safe.
+ */
+public class EnigmaWriter extends Writer
+{
+	private final Writer out;
+	private final StreamCipher cipher;
+	/** Chars of a String that is written */
+	private final char[] raw = new char[StreamCipher.BUFFER_SIZE];
+	private boolean closed;
+
+	/**
+	 * Create an EnigmaWriter that uppercases the text, replaces special characters and drops
+	 * all characters besides A..Z.
+	 * @param out underlying writer
+	 * @param enigma machine
+	 */
+	public EnigmaWriter(Writer out, Enigma enigma)
+	{
+		this(out, enigma, StreamCipher.createDefaultInputPreparer());
+	}
+
+	/**
+	 * Create an EnigmaWriter.
+	 * @param out underlying writer
+	 * @param enigma machine
+	 * @param preparer InputPreparer that prepares the text before it gets encrypted
+	 */
+	public EnigmaWriter(Writer out, Enigma enigma, InputPreparer preparer)
+	{
+		super(out);
+		this.out = out;
+		this.cipher = new StreamCipher(enigma, preparer);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException
+	{
+		if (off < 0 || len < 0 || off > cbuf.length - len) throw new IndexOutOfBoundsException();
+		while (len > 0)
+		{
+			int n = Math.min(len, StreamCipher.BUFFER_SIZE);
+			writeChunk(cbuf, off, n);
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException
+	{
+		if (off < 0 || len < 0 || off > str.length() - len) throw new IndexOutOfBoundsException();
+		while (len > 0)
+		{
+			int n = Math.min(len, StreamCipher.BUFFER_SIZE);
+			str.getChars(off, off + n, raw, 0);
+			writeChunk(raw, 0, n);
+			off += n;
+			len -= n;
+		}
+	}
+
+	private void writeChunk(char[] chunk, int off, int len) throws IOException
+	{
+		if (closed) throw new IOException("Stream closed");
+		int length = cipher.process(chunk, off, len);
+		if (length > 0) out.write(cipher.buffer, 0, length);
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		if (closed) throw new IOException("Stream closed");
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (closed) return;
+		closed = true;
+		out.close();
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaCursor;
+
+/**
+ * Encrypts files of any size by mapping them into memory region by region.
+ * The bytes are encrypted straight from the mapped input into the mapped output without
+ * decoding them to chars, so neither the heap size nor the garbage collector limit the
+ * throughput. The input is treated as ASCII text: the letters a-z and A-Z get encrypted, all
+ * other bytes are dropped. Text that contains umlauts or numbers should be encrypted using an
+ * EnigmaInputStream instead.
+ */
+public final class MappedFileCipher
+{
+	/** Number of bytes that get mapped at once */
+	public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+	private MappedFileCipher()
+	{
+	}
+
+	/**
+	 * Encrypt a file using a machine restored from a hexadecimal state code
+	 * (see Enigma.createEnigmaFromCode(String)).
+	 * @param input file to encrypt
+	 * @param output file the encrypted text gets written to. Existing content is replaced.
+	 * @param code hexadecimal encoded state
+	 * @return number of encrypted chars
+	 * @throws IOException if a file can not be read or written
+	 * @throws IllegalArgumentException if the code does not describe a valid machine
+	 */
+	public static long encrypt(File input, File output, String code) throws IOException
+	{
+		Enigma enigma;
+		try
+		{
+			enigma = Enigma.createEnigmaFromCode(code);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Invalid state code " + code, e);
+		}
+		if (enigma == null) throw new IllegalArgumentException("Invalid state code " + code);
+		return encrypt(input, output, enigma, DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * Encrypt a file. Afterwards the machine is in the position it would have after encrypting
+	 * the text char by char.
+	 * @param input file to encrypt
+	 * @param output file the encrypted text gets written to. Existing content is replaced.
+	 * @param enigma machine
+	 * @param regionSize number of bytes that get mapped at once
+	 * @return number of encrypted chars
+	 * @throws IOException if a file can not be read or written
+	 */
+	public static long encrypt(File input, File output, Enigma enigma, int regionSize)
+			throws IOException
+	{
+		if (regionSize <= 0) throw new IllegalArgumentException("regionSize must be positive");
+		EnigmaCursor cursor = enigma.getConfig().createCursor();
+		RandomAccessFile in = new RandomAccessFile(input, "r");
+		try
+		{
+			RandomAccessFile out = new RandomAccessFile(output, "rw");
+			try
+			{
+				long written = encrypt(in.getChannel(), out.getChannel(), cursor, regionSize);
+				enigma.setPackedState(cursor.getState());
+				return written;
+			}
+			finally
+			{
+				out.close();
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	private static long encrypt(FileChannel in, FileChannel out, EnigmaCursor cursor,
+								int regionSize) throws IOException
+	{
+		long size = in.size();
+		long read = 0;
+		long written = 0;
+		MappedByteBuffer target = null;
+		while (read < size)
+		{
+			MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, read,
+					Math.min(regionSize, size - read));
+			while (source.hasRemaining())
+			{
+				if (target == null || !target.hasRemaining())
+				{
+					if (target != null) written += target.position();
+					// The encrypted text is never longer than the rest of the input
+					long remaining = size - read - source.position();
+					target = out.map(FileChannel.MapMode.READ_WRITE, written,
+							Math.min(regionSize, remaining));
+				}
+				cursor.encrypt(source, target);
+			}
+			read += source.limit();
+		}
+		if (target != null) written += target.position();
+		out.truncate(written);
+		return written;
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import de.vanitasvitae.enigmandroid.enigma.EnigmaConfig;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaConfigCache;
+
+/**
+ * Imports a list of state codes (see Enigma.createEnigmaFromCode(String)) line by line.
+ * Empty lines and lines starting with '#' are skipped. Only one line is held in memory at a
+ * time, so lists of any length can be imported. Configurations are restored through an
+ * EnigmaConfigCache, so codes that occur repeatedly are only restored once.
+ */
+public class StateCodeImporter implements Closeable
+{
+	private final BufferedReader in;
+	private final EnigmaConfigCache cache;
+	private int lineNumber;
+
+	public StateCodeImporter(Reader in)
+	{
+		this(in, new EnigmaConfigCache());
+	}
+
+	/**
+	 * @param in reader of the list
+	 * @param cache cache that is used to restore the configurations
+	 */
+	public StateCodeImporter(Reader in, EnigmaConfigCache cache)
+	{
+		this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+		this.cache = cache;
+	}
+
+	/**
+	 * Read the next configuration of the list.
+	 * @return configuration or null if the end of the list is reached
+	 * @throws IOException if reading fails or the line does not contain a valid state code
+	 */
+	public EnigmaConfig next() throws IOException
+	{
+		String line;
+		while ((line = in.readLine()) != null)
+		{
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) continue;
+			try
+			{
+				return cache.get(line);
+			}
+			catch (IllegalArgumentException e)
+			{
+				throw new IOException("Invalid state code in line " + lineNumber, e);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the number of the line the last configuration was read from.
+	 * @return line number
+	 */
+	public int getLineNumber()
+	{
+		return lineNumber;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+}
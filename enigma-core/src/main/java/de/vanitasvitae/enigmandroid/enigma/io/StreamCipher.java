@@ -0,0 +1,79 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.io;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.CompiledInputPreparer;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * Prepares and encrypts a stream chunk by chunk.
+ * The preparation rules only ever look at single chars, so preparing a message chunk by chunk
+ * yields the same result as preparing the whole message at once.
+ */
+final class StreamCipher
+{
+	/** Number of chars that get prepared and encrypted at once */
+	static final int BUFFER_SIZE = 8192;
+
+	private final Enigma enigma;
+	private final InputPreparer preparer;
+
+	/** Prepared and encrypted chars of the last chunk */
+	char[] buffer = new char[BUFFER_SIZE];
+
+	StreamCipher(Enigma enigma, InputPreparer preparer)
+	{
+		if (enigma == null || preparer == null) throw new NullPointerException();
+		this.enigma = enigma;
+		this.preparer = preparer;
+	}
+
+	/**
+	 * Prepare and encrypt a chunk of raw text. The result is stored in buffer. If the preparer is
+	 * a CompiledInputPreparer, the text is prepared straight into buffer, so no memory gets
+	 * allocated once buffer is large enough.
+	 * @param raw raw text
+	 * @param off offset of the first char of the chunk in raw
+	 * @param len number of chars in the chunk
+	 * @return number of chars in buffer
+	 */
+	int process(char[] raw, int off, int len)
+	{
+		int length;
+		if (preparer instanceof CompiledInputPreparer)
+		{
+			CompiledInputPreparer compiled = (CompiledInputPreparer) preparer;
+			while ((length = compiled.prepare(raw, off, len, buffer)) < 0)
+			{
+				buffer = new char[2 * buffer.length];
+			}
+		}
+		else
+		{
+			String prepared = preparer.prepareString(new String(raw, off, len));
+			length = prepared.length();
+			if (buffer.length < length) buffer = new char[length];
+			prepared.getChars(0, length, buffer, 0);
+		}
+		enigma.encrypt(buffer, 0, length, buffer, 0);
+		return length;
+	}
+
+	static InputPreparer createDefaultInputPreparer()
+	{
+		return InputPreparer.createInputPreparer(true, null);
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.jca;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.AlgorithmParameters;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherSpi;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaConfig;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaCursor;
+
+/**
+ * CipherSpi that encrypts ASCII text with an Enigma machine.
+ * The letters a-z and A-Z get encrypted, all other bytes are dropped, so the output may be
+ * shorter than the input. Since the Enigma is reciprocal, encryption and decryption are the same
+ * operation. doFinal() resets the machine to the position given by the key.
+ */
+public class EnigmaCipherSpi extends CipherSpi
+{
+	/** Machine type requested via the mode or null to accept any key */
+	private String machineType;
+	private EnigmaConfig config;
+	private EnigmaCursor cursor;
+
+	@Override
+	protected void engineSetMode(String mode) throws NoSuchAlgorithmException
+	{
+		if (Enigma.createEnigma(mode) == null)
+			throw new NoSuchAlgorithmException("Unsupported machine type " + mode);
+		this.machineType = mode;
+	}
+
+	@Override
+	protected void engineSetPadding(String padding) throws NoSuchPaddingException
+	{
+		if (!"NoPadding".equalsIgnoreCase(padding))
+			throw new NoSuchPaddingException("Unsupported padding " + padding);
+	}
+
+	@Override
+	protected int engineGetBlockSize()
+	{
+		return 0;
+	}
+
+	@Override
+	protected int engineGetOutputSize(int inputLen)
+	{
+		return inputLen;
+	}
+
+	@Override
+	protected byte[] engineGetIV()
+	{
+		return null;
+	}
+
+	@Override
+	protected AlgorithmParameters engineGetParameters()
+	{
+		return null;
+	}
+
+	@Override
+	protected void engineInit(int opmode, Key key, SecureRandom random) throws InvalidKeyException
+	{
+		if (opmode != Cipher.ENCRYPT_MODE && opmode != Cipher.DECRYPT_MODE)
+			throw new UnsupportedOperationException("Unsupported operation mode " + opmode);
+		byte[] encoded = key.getEncoded();
+		if (encoded == null || encoded.length == 0) throw new InvalidKeyException("Empty key");
+		Enigma enigma;
+		try
+		{
+			enigma = Enigma.createEnigmaFromEncodedState(new BigInteger(1, encoded));
+		}
+		catch (RuntimeException e)
+		{
+			throw new InvalidKeyException("Invalid encoded state", e);
+		}
+		if (enigma == null) throw new InvalidKeyException("Invalid encoded state");
+		if (machineType != null && !machineType.equals(enigma.getMachineType()))
+			throw new InvalidKeyException("Key is for machine type " + enigma.getMachineType()
+					+ " instead of " + machineType);
+		this.config = enigma.getConfig();
+		this.cursor = config.createCursor();
+	}
+
+	@Override
+	protected void engineInit(int opmode, Key key, AlgorithmParameterSpec params,
+							  SecureRandom random)
+			throws InvalidKeyException, InvalidAlgorithmParameterException
+	{
+		if (params != null) throw new InvalidAlgorithmParameterException("No parameters expected");
+		engineInit(opmode, key, random);
+	}
+
+	@Override
+	protected void engineInit(int opmode, Key key, AlgorithmParameters params,
+							  SecureRandom random)
+			throws InvalidKeyException, InvalidAlgorithmParameterException
+	{
+		if (params != null) throw new InvalidAlgorithmParameterException("No parameters expected");
+		engineInit(opmode, key, random);
+	}
+
+	@Override
+	protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen)
+	{
+		checkInitialized();
+		if (inputLen == 0) return new byte[0];
+		ByteBuffer out = ByteBuffer.allocate(inputLen);
+		cursor.encrypt(ByteBuffer.wrap(input, inputOffset, inputLen), out);
+		return out.position() == inputLen ? out.array() : Arrays.copyOf(out.array(), out.position());
+	}
+
+	@Override
+	protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output,
+							   int outputOffset) throws ShortBufferException
+	{
+		checkInitialized();
+		if (inputLen == 0) return 0;
+		if (output.length - outputOffset < inputLen
+				&& output.length - outputOffset < countLetters(input, inputOffset, inputLen))
+			throw new ShortBufferException();
+		ByteBuffer out = ByteBuffer.wrap(output, outputOffset, output.length - outputOffset);
+		cursor.encrypt(ByteBuffer.wrap(input, inputOffset, inputLen), out);
+		return out.position() - outputOffset;
+	}
+
+	@Override
+	protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
+	{
+		byte[] output = engineUpdate(input, inputOffset, inputLen);
+		reset();
+		return output;
+	}
+
+	@Override
+	protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+								int outputOffset) throws ShortBufferException
+	{
+		int n = engineUpdate(input, inputOffset, inputLen, output, outputOffset);
+		reset();
+		return n;
+	}
+
+	private void reset()
+	{
+		cursor.setState(config.getInitialState());
+	}
+
+	private void checkInitialized()
+	{
+		if (cursor == null) throw new IllegalStateException("Cipher not initialized");
+	}
+
+	private static int countLetters(byte[] input, int offset, int length)
+	{
+		int count = 0;
+		for (int i = offset; i < offset + length; i++)
+		{
+			int b = input[i] | 0x20;
+			if (b >= 'a' && b <= 'z') count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.jca;
+
+import java.math.BigInteger;
+
+import javax.crypto.SecretKey;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+
+/**
+ * Key of an Enigma cipher. The key is the encoded state of a machine (see
+ * Enigma.getEncodedState()), which contains the machine type, its parts and their positions.
+ */
+public final class EnigmaKey implements SecretKey
+{
+	private static final long serialVersionUID = 1L;
+
+	private final BigInteger encodedState;
+
+	public EnigmaKey(BigInteger encodedState)
+	{
+		if (encodedState == null || encodedState.signum() < 0)
+			throw new IllegalArgumentException("Invalid encoded state");
+		this.encodedState = encodedState;
+	}
+
+	/**
+	 * Create a key from the current state of a machine.
+	 * @param enigma machine
+	 */
+	public EnigmaKey(Enigma enigma)
+	{
+		this(enigma.getEncodedState());
+	}
+
+	public BigInteger getEncodedState()
+	{
+		return encodedState;
+	}
+
+	@Override
+	public String getAlgorithm()
+	{
+		return EnigmaProvider.ALGORITHM;
+	}
+
+	@Override
+	public String getFormat()
+	{
+		return "RAW";
+	}
+
+	@Override
+	public byte[] getEncoded()
+	{
+		return encodedState.toByteArray();
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		return o instanceof EnigmaKey && encodedState.equals(((EnigmaKey) o).encodedState);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return encodedState.hashCode();
+	}
+}
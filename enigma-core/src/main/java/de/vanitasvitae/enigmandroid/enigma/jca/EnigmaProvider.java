@@ -0,0 +1,46 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma.jca;
+
+import java.security.Provider;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+
+/**
+ * Java Cryptography Architecture provider for the Enigma machines.
+ * After registering the provider (Security.addProvider(new EnigmaProvider())), a machine can
+ * be used via Cipher.getInstance("Enigma/M4/NoPadding") or any other machine type as mode, keyed
+ * with an EnigmaKey. Transformations always consist of one or three parts, so the short form
+ * "Enigma/M4" is rejected by Cipher.getInstance() and must be written as "Enigma/M4/NoPadding".
+ * With Cipher.getInstance("Enigma"), the machine type is taken from the key.
+ * Note, that some JREs only accept Cipher implementations from signed jars.
+ */
+public final class EnigmaProvider extends Provider
+{
+	private static final long serialVersionUID = 1L;
+
+	public static final String NAME = Enigma.APP_ID;
+	public static final String ALGORITHM = "Enigma";
+
+	public EnigmaProvider()
+	{
+		super(NAME, 1.0, "Enigma machines of " + Enigma.APP_ID);
+		put("Cipher." + ALGORITHM, EnigmaCipherSpi.class.getName());
+		put("Cipher." + ALGORITHM + " SupportedModes",
+				"I|M3|M4|D|K|KS|KSA|R|T|KD|G31|G312|G260");
+		put("Cipher." + ALGORITHM + " SupportedPaddings", "NOPADDING");
+		put("Cipher." + ALGORITHM + " SupportedKeyFormats", "RAW");
+	}
+}
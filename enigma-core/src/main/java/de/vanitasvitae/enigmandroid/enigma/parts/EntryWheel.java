@@ -24,10 +24,10 @@ public class EntryWheel
     private final String name;
     private int index;
     private final String summary;
-    private final Integer[] connections;
-    private final Integer[] reversedConnections;
+    private final byte[] connections;
+    private final byte[] reversedConnections;
 
-    EntryWheel(int type, String name, String summary, Integer[] connections, Integer[] reversedConnections)
+    EntryWheel(int type, String name, String summary, byte[] connections, byte[] reversedConnections)
     {
         this.type = type;
         this.name = name;
@@ -97,11 +97,13 @@ public class EntryWheel
 
     public static class EntryWheel_ABCDEF extends EntryWheel
     {
+        private static final byte[] CONNECTIONS = {0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25};
+        private static final byte[] REVERSED_CONNECTIONS = {0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25};
+
         public EntryWheel_ABCDEF()
         {
             super(0, "ABCDEF", "abcdefghijklmnopqrstuvwxyz",
-                    new Integer[]{0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25},
-                    new Integer[]{0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25});
+                    CONNECTIONS, REVERSED_CONNECTIONS);
         }
     }
 
@@ -111,11 +113,13 @@ public class EntryWheel
      */
     public static class EntryWheel_QWERTZ extends EntryWheel
     {
+        private static final byte[] CONNECTIONS = {9,22,20,11,2,12,13,14,7,15,16,25,24,23,8,17,0,3,10,4,6,21,1,19,18,5};
+        private static final byte[] REVERSED_CONNECTIONS = {16,22,4,17,19,25,20,8,14,0,18,3,5,6,7,9,10,15,24,23,2,21,1,13,12,11};
+
         public EntryWheel_QWERTZ()
         {
             super(1, "QWERTZ", "qwertzuioasdfghjkpyxcvbnml",
-                    new Integer[]{9,22,20,11,2,12,13,14,7,15,16,25,24,23,8,17,0,3,10,4,6,21,1,19,18,5},
-                    new Integer[]{16,22,4,17,19,25,20,8,14,0,18,3,5,6,7,9,10,15,24,23,2,21,1,13,12,11});
+                    CONNECTIONS, REVERSED_CONNECTIONS);
         }
     }
 
@@ -125,11 +129,13 @@ public class EntryWheel
      */
     public static class EntryWheel_T extends EntryWheel
     {
+        private static final byte[] CONNECTIONS = {8,11,23,17,25,19,10,6,9,24,0,12,22,21,3,20,5,2,15,16,4,14,13,18,7,1};
+        private static final byte[] REVERSED_CONNECTIONS = {10,25,17,14,20,16,7,24,0,8,6,1,11,22,21,18,19,3,23,5,15,13,12,2,9,4};
+
         public EntryWheel_T()
         {
             super(2, "KZROUQ", "kzrouqhyaigblwvstdxfpnmcje",
-                    new Integer[]{8,11,23,17,25,19,10,6,9,24,0,12,22,21,3,20,5,2,15,16,4,14,13,18,7,1},
-                    new Integer[]{10,25,17,14,20,16,7,24,0,8,6,1,11,22,21,18,19,3,23,5,15,13,12,2,9,4});
+                    CONNECTIONS, REVERSED_CONNECTIONS);
         }
     }
 }
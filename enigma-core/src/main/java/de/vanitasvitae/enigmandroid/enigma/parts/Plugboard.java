@@ -14,13 +14,11 @@
  */
 package de.vanitasvitae.enigmandroid.enigma.parts;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.logging.Logger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.Enigma;
 import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
 
@@ -30,6 +28,10 @@ import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
  */
 public class Plugboard
 {
+    private static final Logger LOG = Logger.getLogger(Enigma.APP_ID);
+
+    /** Radix of a saved configuration (26 letters and a marker) */
+    private static final BigInteger RADIX = BigInteger.valueOf(27);
     private static final int[] empty = {0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25};
     private int[] plugs;
 
@@ -51,15 +53,37 @@ public class Plugboard
     @SuppressWarnings("UnusedReturnValue")
     public BigInteger setConfiguration(BigInteger b)
     {
-        String s = "";
+        StringBuilder s = new StringBuilder();
+        b = readPairs(b, s);
+        this.setConfiguration(stringToConfiguration(s.toString()));
+        return b;
+    }
 
-        int x;
-        while((x = Enigma.getValue(b, 27)) != 26 && b.compareTo(BigInteger.ZERO) > 1)
+    /**
+     * Read the chars of a configuration saved by configurationToBigInteger() until the leading
+     * marker digit (26) is reached.
+     * @param b saved configuration
+     * @param out StringBuilder the chars are appended to
+     * @return rest of b starting with the marker digit
+     */
+    static BigInteger readPairs(BigInteger b, StringBuilder out)
+    {
+        int start = out.length();
+        while(b.signum() > 0)
+        {
+            BigInteger[] qr = b.divideAndRemainder(RADIX);
+            int x = qr[1].intValue();
+            if(x == 26) break;
+            out.append((char) (x+65));
+            b = qr[0];
+        }
+        //Digits are read starting with the least significant one, which is the last char
+        for(int i=start, j=out.length()-1; i<j; i++, j--)
         {
-            s = ((char) (x+65))+s;
-            b = Enigma.removeDigit(b, 27);
+            char c = out.charAt(i);
+            out.setCharAt(i, out.charAt(j));
+            out.setCharAt(j, c);
         }
-        this.setConfiguration(stringToConfiguration(s));
         return b;
     }
 
@@ -99,8 +123,8 @@ public class Plugboard
         //Modify out
         for(int i=0; i<pairs.length()/2; i++)
         {
-            int a = (int) (pairs.toCharArray()[i*2])-65;
-            int b = (int) (pairs.toCharArray()[(i*2)+1])-65;
+            int a = (int) (pairs.charAt(i*2))-65;
+            int b = (int) (pairs.charAt((i*2)+1))-65;
             out[a] = b;
             out[b] = a;
         }
@@ -138,7 +162,7 @@ public class Plugboard
     public static int[] seedToPlugboardConfiguration(Random rand)
     {
         int connectionCount = rand.nextInt(14); //0..13
-        int[] out = empty;
+        int[] out = Arrays.copyOf(empty, empty.length);
         for(int i=0; i<connectionCount; i++)
         {
             int rA = rand.nextInt(26);
@@ -200,20 +224,15 @@ public class Plugboard
             i-=65;
             l = Enigma.addDigit(l,i,27);
         }
-        Log.d(MainActivity.APP_ID, "Save configuration plugs: "+l.toString());
+        LOG.fine("Save configuration plugs: "+l.toString());
         return l;
     }
 
     public static int[] bigIntegerToConfiguration(BigInteger b)
     {
-        String s = "";
-        int x;
-        while((x = Enigma.getValue(b, 27)) != 26 && b.compareTo(BigInteger.ZERO) > 1)
-        {
-            s = ((char) (x+65))+s;
-            b = Enigma.removeDigit(b, 27);
-        }
-        Log.d(MainActivity.APP_ID, "Restored: "+s);
-        return stringToConfiguration(s);
+        StringBuilder s = new StringBuilder();
+        readPairs(b, s);
+        LOG.fine("Restored: "+s);
+        return stringToConfiguration(s.toString());
     }
 }
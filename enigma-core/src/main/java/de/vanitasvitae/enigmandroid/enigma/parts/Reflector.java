@@ -14,12 +14,10 @@
  */
 package de.vanitasvitae.enigmandroid.enigma.parts;
 
-import android.util.Log;
-
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.logging.Logger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
 import de.vanitasvitae.enigmandroid.enigma.Enigma;
 
 /**
@@ -30,6 +28,8 @@ import de.vanitasvitae.enigmandroid.enigma.Enigma;
  */
 public class Reflector
 {
+	private static final Logger LOG = Logger.getLogger(Enigma.APP_ID);
+
 	private final int type;
 	private final String name;
 	private int index;
@@ -43,7 +43,8 @@ public class Reflector
 	 * Use the one of the createReflector* methods instead to create concrete Reflectors from
 	 * outside this class file
 	 * @param type name indicator of the reflector
-	 * @param connections wiring of the reflector as Integer array
+	 * @param connections wiring of the reflector as int array. Fixed wirings are shared by all
+	 *                    instances of the same type and MUST NOT be modified
 	 */
 	Reflector(int type, String name, String summary, int[] connections)
 	{
@@ -89,41 +90,56 @@ public class Reflector
 
 	public Reflector setRotation(int rotation)
 	{
-		this.rotation = rotation;
+		this.rotation = normalize(rotation % getRotorSize());
 		return this;
 	}
 
 	public Reflector setRingSetting(int ringSetting)
 	{
-		this.ringSetting = ringSetting;
+		this.ringSetting = normalize(ringSetting % getRotorSize());
 		return this;
 	}
 
+	/**
+	 * Rewire the reflector. The array is copied, so the caller may reuse it.
+	 * @param c new wiring
+	 * @return this
+	 */
 	public Reflector setConfiguration(int[] c)
 	{
-		this.connections = c;
+		this.connections = Arrays.copyOf(c, c.length);
 		return this;
 	}
 
 	@SuppressWarnings("UnusedReturnValue")
 	public BigInteger setConfiguration(BigInteger b)
 	{
-		String s = "";
-
-		int x;
-		while((x = Enigma.getValue(b, 27)) != 26 || b.compareTo(BigInteger.ZERO) > 1)
-		{
-			s = ((char) (x+65))+s;
-			b = Enigma.removeDigit(b, 27);
-		}
-		Log.d(MainActivity.APP_ID, "Restored: " + s);
-		this.setConfiguration(Plugboard.stringToConfiguration(s));
+		StringBuilder s = new StringBuilder();
+		b = Plugboard.readPairs(b, s);
+		LOG.fine("Restored: " + s);
+		this.setConfiguration(Plugboard.stringToConfiguration(s.toString()));
 		return b;
 	}
 
+	/**
+	 * Return a copy of the wiring. Fixed wirings are shared by all reflectors of the same type, so
+	 * they never get handed out directly.
+	 * @return wiring
+	 */
 	public int[] getConfiguration()
 	{
-		return connections;
+		return Arrays.copyOf(connections, connections.length);
+	}
+
+	/**
+	 * Return true, if the reflector is wired like c. Unlike getConfiguration(), this does not copy
+	 * the wiring.
+	 * @param c wiring
+	 * @return true if the wirings are equal
+	 */
+	public boolean hasConfiguration(int[] c)
+	{
+		return Arrays.equals(connections, c);
 	}
 
 	/**
@@ -160,7 +176,7 @@ public class Reflector
 			case 60: return new ReflectorEnigma_T();
 
 			default:
-				Log.e(MainActivity.APP_ID," Tried to create Reflector of invalid name "+type);
+				LOG.severe(" Tried to create Reflector of invalid name "+type);
 				return null;
 		}
 	}
@@ -206,10 +222,11 @@ public class Reflector
 	 */
 	public static class Reflector_A extends Reflector
 	{
+		private static final int[] CONNECTIONS = {4,9,12,25,0,11,24,23,21,1,22,5,2,17,16,20,14,13,19,18,15,8,10,7,6,3};
+
 		public Reflector_A()
 		{
-			super(0, "A", "EJMZALYXVBWFCRQUONTSPIKHGD",
-				  new int[]{4,9,12,25,0,11,24,23,21,1,22,5,2,17,16,20,14,13,19,18,15,8,10,7,6,3});
+			super(0, "A", "EJMZALYXVBWFCRQUONTSPIKHGD", CONNECTIONS);
 		}
 	}
 
@@ -220,10 +237,11 @@ public class Reflector
 	 */
 	public static class Reflector_B extends Reflector
 	{
+		private static final int[] CONNECTIONS = {24,17,20,7,16,18,11,3,15,23,13,6,14,10,12,8,4,1,5,25,2,22,21,9,0,19};
+
 		public Reflector_B()
 		{
-			super(1, "B", "YRUHQSLDPXNGOKMIEBFZCWVJAT",
-				  new int[]{24,17,20,7,16,18,11,3,15,23,13,6,14,10,12,8,4,1,5,25,2,22,21,9,0,19});
+			super(1, "B", "YRUHQSLDPXNGOKMIEBFZCWVJAT", CONNECTIONS);
 		}
 	}
 
@@ -234,10 +252,11 @@ public class Reflector
 	 */
 	public static class Reflector_C extends Reflector
 	{
+		private static final int[] CONNECTIONS = {5,21,15,9,8,0,14,24,4,3,17,25,23,22,6,2,19,10,20,16,18,1,13,12,7,11};
+
 		public Reflector_C()
 		{
-			super(2, "C", "FVPJIAOYEDRZXWGCTKUGSBNMHL",
-				  new int[]{5,21,15,9,8,0,14,24,4,3,17,25,23,22,6,2,19,10,20,16,18,1,13,12,7,11});
+			super(2, "C", "FVPJIAOYEDRZXWGCTKUGSBNMHL", CONNECTIONS);
 		}
 	}
 
@@ -250,10 +269,11 @@ public class Reflector
 	 */
 	public static class Reflector_Thin_B extends Reflector
 	{
+		private static final int[] CONNECTIONS = {4,13,10,16,0,20,24,22,9,8,2,14,15,1,11,12,3,23,25,21,5,19,7,17,6,18};
+
 		public Reflector_Thin_B()
 		{
-			super(10, "Thin-B", "ENKQAUYWJICOPBLMDXZVFTHRGS",
-				  new int[]{4,13,10,16,0,20,24,22,9,8,2,14,15,1,11,12,3,23,25,21,5,19,7,17,6,18});
+			super(10, "Thin-B", "ENKQAUYWJICOPBLMDXZVFTHRGS", CONNECTIONS);
 		}
 	}
 
@@ -266,10 +286,11 @@ public class Reflector
 	 */
 	public static class ReflectorThinC extends Reflector
 	{
+		private static final int[] CONNECTIONS = {17,3,14,1,9,13,19,10,21,4,7,12,11,5,2,22,25,0,23,6,24,8,15,18,20,16};
+
 		public ReflectorThinC()
 		{
-			super(11, "ThinC", "RDOBJNTKVEHMLFCWZAXGYIPSUQ",
-				  new int[]{17,3,14,1,9,13,19,10,21,4,7,12,11,5,2,22,25,0,23,6,24,8,15,18,20,16});
+			super(11, "ThinC", "RDOBJNTKVEHMLFCWZAXGYIPSUQ", CONNECTIONS);
 		}
 	}
 
@@ -307,10 +328,11 @@ public class Reflector
 	 */
 	public static class Reflector_G312 extends Reflector
 	{
+		private static final int[] CONNECTIONS = {17,20,11,16,12,25,9,18,24,6,14,2,4,19,10,22,3,0,7,13,1,23,15,21,8,5};
+
 		public Reflector_G312()
 		{
-			super(30, "Ref-G312", "RULQMZJSYGOCETKWDAHNBXPVIF",
-				  new int[]{17,20,11,16,12,25,9,18,24,6,14,2,4,19,10,22,3,0,7,13,1,23,15,21,8,5});
+			super(30, "Ref-G312", "RULQMZJSYGOCETKWDAHNBXPVIF", CONNECTIONS);
 		}
 	}
 
@@ -320,10 +342,11 @@ public class Reflector
 	 */
 	public static class Reflector_K_G260 extends Reflector
 	{
+		private static final int[] CONNECTIONS = {8,12,4,19,2,6,5,17,0,24,18,16,1,25,23,22,11,7,10,3,21,20,15,14,9,13};
+
 		public Reflector_K_G260()
 		{
-			super(40,"Ref-K/G260", "IMETCGFRAYSQBZXWLHKDVUPOJN",
-				  new int[]{8,12,4,19,2,6,5,17,0,24,18,16,1,25,23,22,11,7,10,3,21,20,15,14,9,13});
+			super(40,"Ref-K/G260", "IMETCGFRAYSQBZXWLHKDVUPOJN", CONNECTIONS);
 		}
 	}
 
@@ -333,10 +356,11 @@ public class Reflector
 	 */
 	public static class Reflector_R extends Reflector
 	{
+		private static final int[] CONNECTIONS = {16,24,7,14,6,13,4,2,21,15,20,25,19,5,3,9,0,23,22,12,10,8,18,17,1,11};
+
 		public Reflector_R()
 		{
-			super(50, "Ref-R", "QYHOGNECVPUZTFDJAXWMKJSRBL",
-				  new int[]{16,24,7,14,6,13,4,2,21,15,20,25,19,5,3,9,0,23,22,12,10,8,18,17,1,11});
+			super(50, "Ref-R", "QYHOGNECVPUZTFDJAXWMKJSRBL", CONNECTIONS);
 		}
 	}
 
@@ -346,10 +370,11 @@ public class Reflector
 	 */
 	public static class ReflectorEnigma_T extends Reflector
 	{
+		private static final int[] CONNECTIONS = {6,4,10,15,1,19,0,20,12,14,2,13,8,11,9,3,23,25,24,5,7,22,21,16,18,17};
+
 		public ReflectorEnigma_T()
 		{
-			super(60, "Ref-T", "GEKPBTAUMOCNILJDXZYFHWVQSR",
-				  new int[]{6,4,10,15,1,19,0,20,12,14,2,13,8,11,9,3,23,25,24,5,7,22,21,16,18,17});
+			super(60, "Ref-T", "GEKPBTAUMOCNILJDXZYFHWVQSR", CONNECTIONS);
 		}
 	}
 }
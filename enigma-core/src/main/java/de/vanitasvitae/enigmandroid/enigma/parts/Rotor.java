@@ -14,9 +14,9 @@
  */
 package de.vanitasvitae.enigmandroid.enigma.parts;
 
-import android.util.Log;
+import java.util.logging.Logger;
 
-import de.vanitasvitae.enigmandroid.MainActivity;
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
 
 /**
  * Rotor super class and inner concrete implementations
@@ -29,6 +29,8 @@ import de.vanitasvitae.enigmandroid.MainActivity;
  */
 public abstract class Rotor
 {
+    private static final Logger LOG = Logger.getLogger(Enigma.APP_ID);
+
     /** Number of the rotor (used internally to create the Rotor via createRotor() ) */
     private final int type;
 
@@ -41,14 +43,17 @@ public abstract class Rotor
     /** Summary of the connections (internal wiring) */
     private final String summary;
 
-    /** Wiring of the rotor when the signal passes the first time */
-    private final Integer[] connections;
+    /** Wiring of the rotor when the signal passes the first time (shared by all instances) */
+    private final byte[] connections;
 
     /** Wiring of the rotor when the signal passes the second time (inverse of the first time) */
-    private final Integer[] reversedConnections;
+    private final byte[] reversedConnections;
+
+    /** Bitmask of the turnover positions (bit x is set, if x is a turnover position) */
+    private final int turnOverNotchMask;
 
-    /** When the Rotor is at this Position and jumps one over, it also turns the next */
-    private final Integer[] turnOverNotches;
+    /** Bitmask of the positions at which the double turn anomaly happens */
+    private final int doubleTurnAnomalyMask;
 
     /** Offset of the labeled ring of the rotor */
     private int ringSetting;
@@ -63,7 +68,8 @@ public abstract class Rotor
      * neither connections nor reversedConnections respectively MUST have any number between
      * 0 and connections.length-1 only once (ie they represent permutations)
      * @param name name indicator
-     * @param connections wiring of the rotor as Integer array
+     * @param connections wiring of the rotor as byte array. The array is shared by all instances
+     *                    of the same type and MUST NOT be modified
      * @param reversedConnections inverse wiring used to encryptString in the opposite direction
      *                            (connections[reversedConnections[i]] = i
      *                            for all i in 0..getRotorSize()-1.
@@ -71,15 +77,22 @@ public abstract class Rotor
      * @param ringSetting setting of the ring that holds the letters
      * @param rotation rotation of the rotor
      */
-    Rotor(int type, String name, String summary, Integer[] connections, Integer[] reversedConnections,
-          Integer[] turnOverNotches, int ringSetting, int rotation)
+    Rotor(int type, String name, String summary, byte[] connections, byte[] reversedConnections,
+          byte[] turnOverNotches, int ringSetting, int rotation)
     {
         this.type = type;
         this.name = name;
         this.summary = summary;
         this.connections = connections;
         this.reversedConnections = reversedConnections;
-        this.turnOverNotches = turnOverNotches;
+        int notches = 0, anomalies = 0;
+        for(int x : turnOverNotches)
+        {
+            if(x >= 0 && x < connections.length) notches |= 1 << x;
+            if(x >= 1 && x <= connections.length) anomalies |= 1 << (x-1);
+        }
+        this.turnOverNotchMask = notches;
+        this.doubleTurnAnomalyMask = anomalies;
         this.ringSetting = ringSetting;
         this.rotation = rotation;
     }
@@ -108,7 +121,6 @@ public abstract class Rotor
 
     private static Rotor createRotor(int type, int rotation, int ringSetting)
     {
-        Log.d(MainActivity.APP_ID, "Rotor creation: "+type);
         switch (type)
         {
             case 0: return new Rotor_I(rotation, ringSetting);
@@ -164,7 +176,7 @@ public abstract class Rotor
             case 106: return new Rotor_T_VII(rotation, ringSetting);
             case 107: return new Rotor_T_VIII(rotation, ringSetting);
 
-            default: Log.e(MainActivity.APP_ID," Tried to create Rotor of invalid name "+type);
+            default: LOG.severe(" Tried to create Rotor of invalid name "+type);
                 return null;
         }
     }
@@ -258,12 +270,7 @@ public abstract class Rotor
      */
     public boolean isAtTurnoverPosition()
     {
-        for(int x : getTurnOverNotches())
-        {
-            //if(x == this.rotation + this.ringSetting) return true;
-            if(x == this.rotation) return true;
-        }
-        return false;
+        return ((turnOverNotchMask >> this.rotation) & 1) != 0;
     }
 
     /**
@@ -277,20 +284,27 @@ public abstract class Rotor
      */
     public boolean doubleTurnAnomaly()
     {
-        for(int x : getTurnOverNotches())
-        {
-            if(this.rotation == x-1) return true;
-        }
-        return false;
+        return ((doubleTurnAnomalyMask >> this.rotation) & 1) != 0;
     }
 
     /**
-     * Returns the positions of the turnover notches in a array
-     * @return turnOverNotches
+     * Return a bitmask of the turnover positions of the rotor. Bit x is set, if the rotor is at a
+     * turnover position at rotation x (see isAtTurnoverPosition()).
+     * @return bitmask of turnover positions
      */
-    private Integer[] getTurnOverNotches()
+    public int getTurnOverNotchMask()
     {
-        return this.turnOverNotches;
+        return turnOverNotchMask;
+    }
+
+    /**
+     * Return a bitmask of the positions, at which the double turn anomaly happens. Bit x is set,
+     * if doubleTurnAnomaly() returns true at rotation x.
+     * @return bitmask of anomaly positions
+     */
+    public int getDoubleTurnAnomalyMask()
+    {
+        return doubleTurnAnomalyMask;
     }
 
     /**
@@ -333,12 +347,14 @@ public abstract class Rotor
      */
     public static class Rotor_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {4, 10, 12, 5, 11, 6, 3, 16, 21, 25, 13, 19, 14, 22, 24, 7, 23, 20, 18, 15, 0, 8, 1, 17, 2, 9};
+        private static final byte[] REVERSED_CONNECTIONS = {20, 22, 24, 6, 0, 3, 5, 15, 21, 25, 1, 4, 2, 10, 12, 19, 7, 23, 18, 11, 17, 8, 13, 16, 14, 9};
+        private static final byte[] TURNOVER_NOTCHES = {17};
+
         public Rotor_I(int rotation, int ringSetting)
         {
             super(0, "I", "EKMFLGDQVZNTOWYHXUSPAIBRCJ",
-                    new Integer[]{4, 10, 12, 5, 11, 6, 3, 16, 21, 25, 13, 19, 14, 22, 24, 7, 23, 20, 18, 15, 0, 8, 1, 17, 2, 9},
-                    new Integer[]{20, 22, 24, 6, 0, 3, 5, 15, 21, 25, 1, 4, 2, 10, 12, 19, 7, 23, 18, 11, 17, 8, 13, 16, 14, 9},
-                    new Integer[]{17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -349,12 +365,14 @@ public abstract class Rotor
      */
     public static class Rotor_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {0, 9, 3, 10, 18, 8, 17, 20, 23, 1, 11, 7, 22, 19, 12, 2, 16, 6, 25, 13, 15, 24, 5, 21, 14, 4};
+        private static final byte[] REVERSED_CONNECTIONS = {0, 9, 15, 2, 25, 22, 17, 11, 5, 1, 3, 10, 14, 19, 24, 20, 16, 6, 4, 13, 7, 23, 12, 8, 21, 18};
+        private static final byte[] TURNOVER_NOTCHES = {5};
+
         public Rotor_II(int rotation, int ringSetting)
         {
             super(1, "II", "AJDKSIRUXBLHWTMCQGZNPYFVOE",
-                    new Integer[]{0, 9, 3, 10, 18, 8, 17, 20, 23, 1, 11, 7, 22, 19, 12, 2, 16, 6, 25, 13, 15, 24, 5, 21, 14, 4},
-                    new Integer[]{0, 9, 15, 2, 25, 22, 17, 11, 5, 1, 3, 10, 14, 19, 24, 20, 16, 6, 4, 13, 7, 23, 12, 8, 21, 18},
-                    new Integer[]{5}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -365,12 +383,14 @@ public abstract class Rotor
      */
     public static class Rotor_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {1, 3, 5, 7, 9, 11, 2, 15, 17, 19, 23, 21, 25, 13, 24, 4, 8, 22, 6, 0, 10, 12, 20, 18, 16, 14};
+        private static final byte[] REVERSED_CONNECTIONS = {19, 0, 6, 1, 15, 2, 18, 3, 16, 4, 20, 5, 21, 13, 25, 7, 24, 8, 23, 9, 22, 11, 17, 10, 14, 12};
+        private static final byte[] TURNOVER_NOTCHES = {22};
+
         public Rotor_III(int rotation, int ringSetting)
         {
             super(2, "III", "BDFHJLCPRTXVZNYEIWGAKMUSQO",
-                    new Integer[]{1, 3, 5, 7, 9, 11, 2, 15, 17, 19, 23, 21, 25, 13, 24, 4, 8, 22, 6, 0, 10, 12, 20, 18, 16, 14},
-                    new Integer[]{19, 0, 6, 1, 15, 2, 18, 3, 16, 4, 20, 5, 21, 13, 25, 7, 24, 8, 23, 9, 22, 11, 17, 10, 14, 12},
-                    new Integer[]{22}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -381,12 +401,14 @@ public abstract class Rotor
      */
     public static class Rotor_IV extends Rotor
     {
+        private static final byte[] CONNECTIONS = {4, 18, 14, 21, 15, 25, 9, 0, 24, 16, 20, 8, 17, 7, 23, 11, 13, 5, 19, 6, 10, 3, 2, 12, 22, 1};
+        private static final byte[] REVERSED_CONNECTIONS = {7, 25, 22, 21, 0, 17, 19, 13, 11, 6, 20, 15, 23, 16, 2, 4, 9, 12, 1, 18, 10, 3, 24, 14, 8, 5};
+        private static final byte[] TURNOVER_NOTCHES = {10};
+
         public Rotor_IV(int rotation, int ringSetting)
         {
             super(3, "IV", "ESOVPZJAYQUIRHXLNFTGKDCMWB",
-                    new Integer[]{4, 18, 14, 21, 15, 25, 9, 0, 24, 16, 20, 8, 17, 7, 23, 11, 13, 5, 19, 6, 10, 3, 2, 12, 22, 1},
-                    new Integer[]{7, 25, 22, 21, 0, 17, 19, 13, 11, 6, 20, 15, 23, 16, 2, 4, 9, 12, 1, 18, 10, 3, 24, 14, 8, 5},
-                    new Integer[]{10}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -397,12 +419,14 @@ public abstract class Rotor
      */
     public static class Rotor_V extends Rotor
     {
+        private static final byte[] CONNECTIONS = {21, 25, 1, 17, 6, 8, 19, 24, 20, 15, 18, 3, 13, 7, 11, 23, 0, 22, 12, 9, 16, 14, 5, 4, 2, 10};
+        private static final byte[] REVERSED_CONNECTIONS = {16, 2, 24, 11, 23, 22, 4, 13, 5, 19, 25, 14, 18, 12, 21, 9, 20, 3, 10, 6, 8, 0, 17, 15, 7, 1};
+        private static final byte[] TURNOVER_NOTCHES = {0};
+
         public Rotor_V(int rotation, int ringSetting)
         {
             super(4, "V", "VZBRGITYUPSDNHLXAWMJQOFECK",
-                    new Integer[]{21, 25, 1, 17, 6, 8, 19, 24, 20, 15, 18, 3, 13, 7, 11, 23, 0, 22, 12, 9, 16, 14, 5, 4, 2, 10},
-                    new Integer[]{16, 2, 24, 11, 23, 22, 4, 13, 5, 19, 25, 14, 18, 12, 21, 9, 20, 3, 10, 6, 8, 0, 17, 15, 7, 1},
-                    new Integer[]{0}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -413,12 +437,14 @@ public abstract class Rotor
      */
     public static class Rotor_VI extends Rotor
     {
+        private static final byte[] CONNECTIONS = {9,15,6,21,14,20,12,5,24,16,1,4,13,7,25,17,3,10,0,18,23,11,8,2,19,22};
+        private static final byte[] REVERSED_CONNECTIONS = {18,10,23,16,11,7,2,13,22,0,17,21,6,12,4,1,9,15,19,24,5,3,25,20,8,14};
+        private static final byte[] TURNOVER_NOTCHES = {0,13};
+
         public Rotor_VI(int rotation, int ringSetting)
         {
             super(5, "VI", "JPGVOUMFYQBENHZRDKASXLICTW",
-                    new Integer[]{9,15,6,21,14,20,12,5,24,16,1,4,13,7,25,17,3,10,0,18,23,11,8,2,19,22},
-                    new Integer[]{18,10,23,16,11,7,2,13,22,0,17,21,6,12,4,1,9,15,19,24,5,3,25,20,8,14},
-                    new Integer[]{0,13}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -429,12 +455,14 @@ public abstract class Rotor
      */
     public static class Rotor_VII extends Rotor
     {
+        private static final byte[] CONNECTIONS = {13,25,9,7,6,17,2,23,12,24,18,22,1,14,20,5,0,8,21,11,15,4,10,16,3,19};
+        private static final byte[] REVERSED_CONNECTIONS = {16,12,6,24,21,15,4,3,17,2,22,19,8,0,13,20,23,5,10,25,14,18,11,7,9,1};
+        private static final byte[] TURNOVER_NOTCHES = {0,13};
+
         public Rotor_VII(int rotation, int ringSetting)
         {
             super(6, "VII", "NZJHGRCXMYSWBOUFAIVLPEKQDT",
-                    new Integer[]{13,25,9,7,6,17,2,23,12,24,18,22,1,14,20,5,0,8,21,11,15,4,10,16,3,19},
-                    new Integer[]{16,12,6,24,21,15,4,3,17,2,22,19,8,0,13,20,23,5,10,25,14,18,11,7,9,1},
-                    new Integer[]{0,13}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -445,12 +473,14 @@ public abstract class Rotor
      */
     public static class Rotor_VIII extends Rotor
     {
+        private static final byte[] CONNECTIONS = {5,10,16,7,19,11,23,14,2,1,9,18,15,3,25,17,0,12,4,22,13,8,20,24,6,21};
+        private static final byte[] REVERSED_CONNECTIONS = {16,9,8,13,18,0,24,3,21,10,1,5,17,20,7,12,2,15,11,4,22,25,19,6,23,14};
+        private static final byte[] TURNOVER_NOTCHES = {0,13};
+
         public Rotor_VIII(int rotation, int ringSetting)
         {
             super(7, "VIII", "FKQHTLXOCBJSPDZRAMEWNIUYGV",
-                    new Integer[]{5,10,16,7,19,11,23,14,2,1,9,18,15,3,25,17,0,12,4,22,13,8,20,24,6,21},
-                    new Integer[]{16,9,8,13,18,0,24,3,21,10,1,5,17,20,7,12,2,15,11,4,22,25,19,6,23,14},
-                    new Integer[]{0,13}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -464,12 +494,14 @@ public abstract class Rotor
      */
     public static class Rotor_M4_Beta extends Rotor
     {
+        private static final byte[] CONNECTIONS = {11,4,24,9,21,2,13,8,23,22,15,1,16,12,3,17,19,0,10,25,6,5,20,7,14,18};
+        private static final byte[] REVERSED_CONNECTIONS = {17,11,5,14,1,21,20,23,7,3,18,0,13,6,24,10,12,15,25,16,22,4,9,8,2,19};
+        private static final byte[] TURNOVER_NOTCHES = {};
+
         public Rotor_M4_Beta(int rotation, int ringSetting)
         {
             super(10, "Beta", "LEYJVCNIXWPBQMDRTAKZGFUHOS",
-                    new Integer[]{11,4,24,9,21,2,13,8,23,22,15,1,16,12,3,17,19,0,10,25,6,5,20,7,14,18},
-                    new Integer[]{17,11,5,14,1,21,20,23,7,3,18,0,13,6,24,10,12,15,25,16,22,4,9,8,2,19},
-                    new Integer[]{}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
         @Override
         public Rotor rotate()
@@ -496,12 +528,14 @@ public abstract class Rotor
      */
     public static class Rotor_M4_Gamma extends Rotor
     {
+        private static final byte[] CONNECTIONS = {5,18,14,10,0,13,20,4,17,7,12,1,19,8,24,2,22,11,16,15,25,23,21,6,9,3};
+        private static final byte[] REVERSED_CONNECTIONS = {4,11,15,25,7,0,23,9,13,24,3,17,10,5,2,19,18,8,1,12,6,22,16,21,14,20};
+        private static final byte[] TURNOVER_NOTCHES = {};
+
         public Rotor_M4_Gamma(int rotation, int ringSetting)
         {
             super(11, "Gamma", "FSOKANUERHMBTIYCWLQPZXVGJD",
-                    new Integer[]{5,18,14,10,0,13,20,4,17,7,12,1,19,8,24,2,22,11,16,15,25,23,21,6,9,3},
-                    new Integer[]{4,11,15,25,7,0,23,9,13,24,3,17,10,5,2,19,18,8,1,12,6,22,16,21,14,20},
-                    new Integer[]{}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
         @Override
         public Rotor rotate()
@@ -525,12 +559,14 @@ public abstract class Rotor
      */
     public static class Rotor_G31_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {11,15,6,18,25,12,7,0,4,14,16,10,21,23,17,5,24,1,20,19,13,8,2,9,3,22};
+        private static final byte[] REVERSED_CONNECTIONS = {7,17,22,24,8,15,2,6,21,23,11,0,5,20,9,1,10,14,3,19,18,12,25,13,16,4};
+        private static final byte[] TURNOVER_NOTCHES = {19,21,22,23,0,1,2,3,5,6,7,9,11,12,15,16,17};
+
         public Rotor_G31_I(int rotation, int ringSetting)
         {
             super(20, "G31-I", "LPGSZMHAEOQKVXRFYBUTNICJDW",
-                    new Integer[]{11,15,6,18,25,12,7,0,4,14,16,10,21,23,17,5,24,1,20,19,13,8,2,9,3,22},
-                    new Integer[]{7,17,22,24,8,15,2,6,21,23,11,0,5,20,9,1,10,14,3,19,18,12,25,13,16,4},
-                    new Integer[]{19,21,22,23,0,1,2,3,5,6,7,9,11,12,15,16,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -541,12 +577,14 @@ public abstract class Rotor
      */
     public static class Rotor_G31_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {18,11,21,6,1,19,5,23,9,16,14,7,4,22,8,17,25,24,0,12,10,15,2,13,3,20};
+        private static final byte[] REVERSED_CONNECTIONS = {18,4,22,24,12,6,3,11,14,8,20,1,19,23,10,21,9,15,0,5,25,2,13,7,17,16};
+        private static final byte[] TURNOVER_NOTCHES = {19,20,22,25,0,1,3,4,6,7,8,11,13,14,17};
+
         public Rotor_G31_II(int rotation, int ringSetting)
         {
             super(21, "G31_II", "SLVGBTFXJQOHEWIRZYAMKPCNDU",
-                    new Integer[]{18,11,21,6,1,19,5,23,9,16,14,7,4,22,8,17,25,24,0,12,10,15,2,13,3,20},
-                    new Integer[]{18,4,22,24,12,6,3,11,14,8,20,1,19,23,10,21,9,15,0,5,25,2,13,7,17,16},
-                    new Integer[]{19,20,22,25,0,1,3,4,6,7,8,11,13,14,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -557,12 +595,14 @@ public abstract class Rotor
      */
     public static class Rotor_G31_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {2,9,6,3,15,18,7,10,19,20,17,0,22,25,23,5,12,24,13,16,14,1,21,11,8,4};
+        private static final byte[] REVERSED_CONNECTIONS = {11,21,0,3,25,15,2,6,24,1,7,23,16,18,20,4,19,10,5,8,9,22,12,14,17,13};
+        private static final byte[] TURNOVER_NOTCHES = {21,23,24,1,5,6,8,11,13,14,18};
+
         public Rotor_G31_III(int rotation, int ringSetting)
         {
             super(22, "G31_III", "CJGDPSHKTURAWZXFMYNQOBVLIE",
-                    new Integer[]{2,9,6,3,15,18,7,10,19,20,17,0,22,25,23,5,12,24,13,16,14,1,21,11,8,4},
-                    new Integer[]{11,21,0,3,25,15,2,6,24,1,7,23,16,18,20,4,19,10,5,8,9,22,12,14,17,13},
-                    new Integer[]{21,23,24,1,5,6,8,11,13,14,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -573,12 +613,14 @@ public abstract class Rotor
      */
     public static class Rotor_G312_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {3,12,19,22,18,8,11,17,20,24,16,13,10,5,4,9,2,0,25,1,15,6,23,14,7,21};
+        private static final byte[] REVERSED_CONNECTIONS = {17,19,16,0,14,13,21,24,5,15,12,6,1,11,23,20,10,7,4,2,8,25,3,22,9,18};
+        private static final byte[] TURNOVER_NOTCHES = {19,21,22,23,0,1,2,3,5,6,7,9,11,12,15,16,17};
+
         public Rotor_G312_I(int rotation, int ringSetting)
         {
             super(30, "G312-I", "DMTWSILRUYQNKFEJCAZBPGXOHV",
-                    new Integer[]{3,12,19,22,18,8,11,17,20,24,16,13,10,5,4,9,2,0,25,1,15,6,23,14,7,21},
-                    new Integer[]{17,19,16,0,14,13,21,24,5,15,12,6,1,11,23,20,10,7,4,2,8,25,3,22,9,18},
-                    new Integer[]{19,21,22,23,0,1,2,3,5,6,7,9,11,12,15,16,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -589,12 +631,14 @@ public abstract class Rotor
      */
     public static class Rotor_G312_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {7,16,25,6,15,9,19,12,14,1,11,13,2,8,5,3,24,0,22,21,4,20,18,17,10,23};
+        private static final byte[] REVERSED_CONNECTIONS = {17,9,12,15,20,14,3,0,13,5,24,10,7,11,8,4,1,23,22,6,21,19,18,25,16,2};
+        private static final byte[] TURNOVER_NOTCHES = {19,20,22,25,0,1,3,4,6,7,8,11,13,14,17};
+
         public Rotor_G312_II(int rotation, int ringSetting)
         {
             super(31, "G312-II", "HQZGPJTMOBLNCIFDYAWVEUSRKX",
-                    new Integer[]{7,16,25,6,15,9,19,12,14,1,11,13,2,8,5,3,24,0,22,21,4,20,18,17,10,23},
-                    new Integer[]{17,9,12,15,20,14,3,0,13,5,24,10,7,11,8,4,1,23,22,6,21,19,18,25,16,2},
-                    new Integer[]{19,20,22,25,0,1,3,4,6,7,8,11,13,14,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -605,12 +649,14 @@ public abstract class Rotor
      */
     public static class Rotor_G312_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {20,16,13,19,11,18,25,5,12,17,4,7,3,15,23,10,8,1,21,24,6,9,2,22,14,0};
+        private static final byte[] REVERSED_CONNECTIONS = {25,17,22,12,10,7,20,11,16,21,15,4,8,2,24,13,1,9,5,3,0,18,23,14,19,6};
+        private static final byte[] TURNOVER_NOTCHES = {21,23,24,1,5,6,8,11,13,14,18};
+
         public Rotor_G312_III(int rotation, int ringSetting)
         {
             super(32, "G312-III", "UQNTLSZFMREHDPXKIBVYGJCWOA",
-                    new Integer[]{20,16,13,19,11,18,25,5,12,17,4,7,3,15,23,10,8,1,21,24,6,9,2,22,14,0},
-                    new Integer[]{25,17,22,12,10,7,20,11,16,21,15,4,8,2,24,13,1,9,5,3,0,18,23,14,19,6},
-                    new Integer[]{21,23,24,1,5,6,8,11,13,14,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -621,12 +667,14 @@ public abstract class Rotor
      */
     public static class Rotor_G260_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {17,2,18,15,1,11,10,16,0,20,12,7,22,24,19,8,5,25,21,6,14,9,13,4,23,3};
+        private static final byte[] REVERSED_CONNECTIONS = {8,4,1,25,23,16,19,11,15,21,6,5,10,22,20,3,7,0,2,14,9,18,12,24,13,17};
+        private static final byte[] TURNOVER_NOTCHES = {19,21,22,23,0,1,2,3,5,6,7,9,11,12,15,16,17};
+
         public Rotor_G260_I(int rotation, int ringSetting)
         {
             super(40, "G260-I", "RCSPBLKQAUMHWYTIFZVGOJNEXD",
-                    new Integer[]{17,2,18,15,1,11,10,16,0,20,12,7,22,24,19,8,5,25,21,6,14,9,13,4,23,3},
-                    new Integer[]{8,4,1,25,23,16,19,11,15,21,6,5,10,22,20,3,7,0,2,14,9,18,12,24,13,17},
-                    new Integer[]{19,21,22,23,0,1,2,3,5,6,7,9,11,12,15,16,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -637,12 +685,14 @@ public abstract class Rotor
      */
     public static class Rotor_G260_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {22,2,12,8,1,21,15,9,23,0,17,14,18,6,13,3,11,25,10,4,24,7,20,5,16,19};
+        private static final byte[] REVERSED_CONNECTIONS = {9,4,1,15,19,23,13,21,3,7,18,16,2,14,11,6,24,10,12,25,22,5,0,8,20,17};
+        private static final byte[] TURNOVER_NOTCHES = {19,20,22,25,0,1,3,4,6,7,8,11,13,14,17};
+
         public Rotor_G260_II(int rotation, int ringSetting)
         {
             super(41, "G260-II", "WCMIBVPJXAROSGNDLZKEYHUFQT",
-                    new Integer[]{22,2,12,8,1,21,15,9,23,0,17,14,18,6,13,3,11,25,10,4,24,7,20,5,16,19},
-                    new Integer[]{9,4,1,15,19,23,13,21,3,7,18,16,2,14,11,6,24,10,12,25,22,5,0,8,20,17},
-                    new Integer[]{19,20,22,25,0,1,3,4,6,7,8,11,13,14,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -653,12 +703,14 @@ public abstract class Rotor
      */
     public static class Rotor_G260_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {5,21,3,7,25,4,11,18,16,12,0,23,14,10,24,8,22,15,6,2,1,20,9,19,13,17};
+        private static final byte[] REVERSED_CONNECTIONS = {10,20,19,2,5,0,18,3,15,22,13,6,9,24,12,17,8,25,7,23,21,1,16,11,14,4};
+        private static final byte[] TURNOVER_NOTCHES = {21,23,24,1,5,6,8,11,13,14,18};
+
         public Rotor_G260_III(int rotation, int ringSetting)
         {
             super(42, "G260-III", "FVDHZELSQMAXOKYIWPGCBUJTNR",
-                    new Integer[]{5,21,3,7,25,4,11,18,16,12,0,23,14,10,24,8,22,15,6,2,1,20,9,19,13,17},
-                    new Integer[]{10,20,19,2,5,0,18,3,15,22,13,6,9,24,12,17,8,25,7,23,21,1,16,11,14,4},
-                    new Integer[]{21,23,24,1,5,6,8,11,13,14,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -669,12 +721,14 @@ public abstract class Rotor
      */
     public static class Rotor_K_D_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {11,15,6,18,25,12,7,0,4,14,16,10,21,23,17,5,24,1,20,19,13,8,2,9,3,22};
+        private static final byte[] REVERSED_CONNECTIONS = {7,17,22,24,8,15,2,6,21,23,11,0,5,20,9,1,10,14,3,19,18,12,25,13,16,4};
+        private static final byte[] TURNOVER_NOTCHES = {25};
+
         public Rotor_K_D_I(int rotation, int ringSetting)
         {
             super(50, "K/D-I", "LPGSZMHAEOQKVXRFYBUTNICJDW",
-                    new Integer[]{11,15,6,18,25,12,7,0,4,14,16,10,21,23,17,5,24,1,20,19,13,8,2,9,3,22},
-                    new Integer[]{7,17,22,24,8,15,2,6,21,23,11,0,5,20,9,1,10,14,3,19,18,12,25,13,16,4},
-                    new Integer[]{25}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -685,12 +739,14 @@ public abstract class Rotor
      */
     public static class Rotor_K_D_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {18,11,21,6,1,19,5,23,9,16,14,7,4,22,8,17,25,24,0,12,10,15,2,13,3,20};
+        private static final byte[] REVERSED_CONNECTIONS = {18,4,22,24,12,6,3,11,14,8,20,1,19,23,10,21,9,15,0,5,25,2,13,7,17,16};
+        private static final byte[] TURNOVER_NOTCHES = {5};
+
         public Rotor_K_D_II(int rotation, int ringSetting)
         {
             super(51, "K/D-II", "SLVGBTFXJQOHEWIRZYAMKPCNDU",
-                    new Integer[]{18,11,21,6,1,19,5,23,9,16,14,7,4,22,8,17,25,24,0,12,10,15,2,13,3,20},
-                    new Integer[]{18,4,22,24,12,6,3,11,14,8,20,1,19,23,10,21,9,15,0,5,25,2,13,7,17,16},
-                    new Integer[]{5}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -701,12 +757,14 @@ public abstract class Rotor
      */
     public static class Rotor_K_D_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {2,9,6,3,15,18,7,10,19,20,17,0,22,25,23,5,12,24,13,16,14,1,21,11,8,4};
+        private static final byte[] REVERSED_CONNECTIONS = {11,21,0,3,25,15,2,6,24,1,7,23,16,18,20,4,19,10,5,8,9,22,12,14,17,13};
+        private static final byte[] TURNOVER_NOTCHES = {14};
+
         public Rotor_K_D_III(int rotation, int ringSetting)
         {
             super(52, "K/D-III", "CJGDPSHKTURAWZXFMYNQOBVLIE",
-                    new Integer[]{2,9,6,3,15,18,7,10,19,20,17,0,22,25,23,5,12,24,13,16,14,1,21,11,8,4},
-                    new Integer[]{11,21,0,3,25,15,2,6,24,1,7,23,16,18,20,4,19,10,5,8,9,22,12,14,17,13},
-                    new Integer[]{14}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -717,12 +775,14 @@ public abstract class Rotor
 	 */
     public static class Rotor_KD_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {21,4,25,8,14,9,2,23,10,24,3,20,13,19,22,0,15,11,16,6,1,7,18,5,12,17};
+        private static final byte[] REVERSED_CONNECTIONS = {15,20,6,10,1,23,19,21,3,5,8,17,24,12,4,16,18,25,22,13,11,0,14,7,9,2};
+        private static final byte[] TURNOVER_NOTCHES = {19,21,25,1,5,8,12,14,17};
+
         public Rotor_KD_I(int rotation, int ringSetting)
         {
             super(60, "KD-I", "VEZIOJCXKYDUNTWAPLQGBHSFMR",
-                  new Integer[]{21,4,25,8,14,9,2,23,10,24,3,20,13,19,22,0,15,11,16,6,1,7,18,5,12,17},
-                  new Integer[]{15,20,6,10,1,23,19,21,3,5,8,17,24,12,4,16,18,25,22,13,11,0,14,7,9,2},
-                  new Integer[]{19,21,25,1,5,8,12,14,17}, ringSetting, rotation);
+                  CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -733,12 +793,14 @@ public abstract class Rotor
 	 */
 	public static class Rotor_KD_II extends Rotor
 	{
+		private static final byte[] CONNECTIONS = {7,6,17,1,18,9,25,4,19,3,11,21,15,12,16,24,2,23,0,14,10,8,13,5,20,22};
+		private static final byte[] REVERSED_CONNECTIONS = {18,3,16,9,7,23,1,0,21,5,20,10,13,22,19,12,14,2,4,8,24,11,25,17,15,6};
+		private static final byte[] TURNOVER_NOTCHES = {19,21,25,1,5,8,12,14,17};
+
 		public Rotor_KD_II(int rotation, int ringSetting)
 		{
 			super(61, "KD-II", "HGRBSJZETDLVPMQYCXAOKINFUW",
-				  new Integer[]{7,6,17,1,18,9,25,4,19,3,11,21,15,12,16,24,2,23,0,14,10,8,13,5,20,22},
-				  new Integer[]{18,3,16,9,7,23,1,0,21,5,20,10,13,22,19,12,14,2,4,8,24,11,25,17,15,6},
-				  new Integer[]{19,21,25,1,5,8,12,14,17}, ringSetting, rotation);
+				  CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
 		}
 	}
 
@@ -749,12 +811,14 @@ public abstract class Rotor
 	 */
 	public static class Rotor_KD_III extends Rotor
 	{
+		private static final byte[] CONNECTIONS = {13,22,11,7,23,6,17,1,24,14,9,18,0,25,3,21,19,15,10,5,16,12,4,20,8,2};
+		private static final byte[] REVERSED_CONNECTIONS = {12,7,25,14,22,19,5,3,24,10,18,2,21,0,9,17,20,6,11,16,23,15,1,4,8,13};
+		private static final byte[] TURNOVER_NOTCHES = {19,21,25,1,5,8,12,14,17};
+
 		public Rotor_KD_III(int rotation, int ringSetting)
 		{
 			super(62, "KD-II", "NWLHXGRBYOJSAZDVTPKFQMEUIC",
-				  new Integer[]{13,22,11,7,23,6,17,1,24,14,9,18,0,25,3,21,19,15,10,5,16,12,4,20,8,2},
-				  new Integer[]{12,7,25,14,22,19,5,3,24,10,18,2,21,0,9,17,20,6,11,16,23,15,1,4,8,13},
-				  new Integer[]{19,21,25,1,5,8,12,14,17}, ringSetting, rotation);
+				  CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
 		}
 	}
 
@@ -765,12 +829,14 @@ public abstract class Rotor
      */
     public static class Rotor_KSwiss_Standard_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {15,4,25,20,14,7,23,18,2,21,5,12,19,1,6,11,17,8,13,16,9,22,0,24,3,10};
+        private static final byte[] REVERSED_CONNECTIONS = {22,13,8,24,1,10,14,5,17,20,25,15,11,18,4,0,19,16,7,12,3,9,21,6,23,2};
+        private static final byte[] TURNOVER_NOTCHES = {25};
+
         public Rotor_KSwiss_Standard_I(int rotation, int ringSetting)
         {
             super(70, "KS-I", "PEZUOHXSCVFMTBGLRINQJWAYDK",
-                    new Integer[]{15,4,25,20,14,7,23,18,2,21,5,12,19,1,6,11,17,8,13,16,9,22,0,24,3,10},
-                    new Integer[]{22,13,8,24,1,10,14,5,17,20,25,15,11,18,4,0,19,16,7,12,3,9,21,6,23,2},
-                    new Integer[]{25}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -781,12 +847,14 @@ public abstract class Rotor
      */
     public static class Rotor_KSwiss_Standard_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {25,14,20,4,18,24,3,10,5,22,15,2,8,16,23,7,12,21,1,11,6,13,9,17,0,19};
+        private static final byte[] REVERSED_CONNECTIONS = {24,18,11,6,3,8,20,15,12,22,7,19,16,21,1,10,13,23,4,25,2,17,9,14,5,0};
+        private static final byte[] TURNOVER_NOTCHES = {5};
+
         public Rotor_KSwiss_Standard_II(int rotation, int ringSetting)
         {
             super(71, "KS-II", "ZOUESYDKFWPCIQXHMVBLGNJRAT",
-                    new Integer[]{25,14,20,4,18,24,3,10,5,22,15,2,8,16,23,7,12,21,1,11,6,13,9,17,0,19},
-                    new Integer[]{24,18,11,6,3,8,20,15,12,22,7,19,16,21,1,10,13,23,4,25,2,17,9,14,5,0},
-                    new Integer[]{5}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -797,12 +865,14 @@ public abstract class Rotor
      */
     public static class Rotor_KSwiss_Standard_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {4,7,17,21,23,6,0,14,1,16,20,18,8,12,25,5,11,24,13,22,10,19,15,3,9,2};
+        private static final byte[] REVERSED_CONNECTIONS = {6,8,25,23,0,15,5,1,12,24,20,16,13,18,7,22,9,2,11,21,10,3,19,4,17,14};
+        private static final byte[] TURNOVER_NOTCHES = {14};
+
         public Rotor_KSwiss_Standard_III(int rotation, int ringSetting)
         {
             super(72, "KS-III", "EHRVXGAOBQUSIMZFLYNWKTPDJC",
-                    new Integer[]{4,7,17,21,23,6,0,14,1,16,20,18,8,12,25,5,11,24,13,22,10,19,15,3,9,2},
-                    new Integer[]{6,8,25,23,0,15,5,1,12,24,20,16,13,18,7,22,9,2,11,21,10,3,19,4,17,14},
-                    new Integer[]{14}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -813,12 +883,14 @@ public abstract class Rotor
      */
     public static class Rotor_K_Swiss_Airforce_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {15,4,25,20,14,7,23,18,2,21,5,12,19,1,6,11,17,8,13,16,9,22,0,24,3,10};
+        private static final byte[] REVERSED_CONNECTIONS = {22,13,8,24,1,10,14,5,17,20,25,15,11,18,4,0,19,16,7,12,3,9,21,6,23,2};
+        private static final byte[] TURNOVER_NOTCHES = {25};
+
         public Rotor_K_Swiss_Airforce_I(int rotation, int ringSetting)
         {
             super(80, "KSA-I", "PEZUOHXSCVFMTBGLRINQJWAYDK",
-                    new Integer[]{15,4,25,20,14,7,23,18,2,21,5,12,19,1,6,11,17,8,13,16,9,22,0,24,3,10},
-                    new Integer[]{22,13,8,24,1,10,14,5,17,20,25,15,11,18,4,0,19,16,7,12,3,9,21,6,23,2},
-                    new Integer[]{25}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
     /**
@@ -828,12 +900,14 @@ public abstract class Rotor
      */
     public static class Rotor_K_Swiss_Airforce_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {25,14,20,4,18,24,3,10,5,22,15,2,8,16,23,7,12,21,1,11,6,13,9,17,0,19};
+        private static final byte[] REVERSED_CONNECTIONS = {24,18,11,6,3,8,20,15,12,22,7,19,16,21,1,10,13,23,4,25,2,17,9,14,5,0};
+        private static final byte[] TURNOVER_NOTCHES = {5};
+
         public Rotor_K_Swiss_Airforce_II(int rotation, int ringSetting)
         {
             super(81, "KSA-II", "ZOUESYDKFWPCIQXHMVBLGNJRAT",
-                    new Integer[]{25,14,20,4,18,24,3,10,5,22,15,2,8,16,23,7,12,21,1,11,6,13,9,17,0,19},
-                    new Integer[]{24,18,11,6,3,8,20,15,12,22,7,19,16,21,1,10,13,23,4,25,2,17,9,14,5,0},
-                    new Integer[]{5}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
     /**
@@ -843,12 +917,14 @@ public abstract class Rotor
      */
     public static class Rotor_K_Swiss_Airforce_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {4,7,17,21,23,6,0,14,1,16,20,18,8,12,25,5,11,24,13,22,10,19,15,3,9,2};
+        private static final byte[] REVERSED_CONNECTIONS = {6,8,25,23,0,15,5,1,12,24,20,16,13,18,7,22,9,2,11,21,10,3,19,4,17,14};
+        private static final byte[] TURNOVER_NOTCHES = {14};
+
         public Rotor_K_Swiss_Airforce_III(int rotation, int ringSetting)
         {
             super(82, "KSA-III", "EHRVXGAOBQUSIMZFLYNWKTPDJC",
-                    new Integer[]{4,7,17,21,23,6,0,14,1,16,20,18,8,12,25,5,11,24,13,22,10,19,15,3,9,2},
-                    new Integer[]{6,8,25,23,0,15,5,1,12,24,20,16,13,18,7,22,9,2,11,21,10,3,19,4,17,14},
-                    new Integer[]{14}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -859,12 +935,14 @@ public abstract class Rotor
      */
     public static class Rotor_R_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {9,6,3,16,14,23,20,18,2,0,12,8,5,17,21,19,15,13,4,22,10,1,11,25,24,7};
+        private static final byte[] REVERSED_CONNECTIONS = {9,21,8,2,18,12,1,25,11,0,20,22,10,17,4,16,3,13,7,15,6,14,19,5,24,23};
+        private static final byte[] TURNOVER_NOTCHES = {14};
+
         public Rotor_R_I(int rotation, int ringSetting)
         {
             super(90, "R-I", "JGDQOXUSCAMIFRVTPNEWKBLZYH",
-                    new Integer[]{9,6,3,16,14,23,20,18,2,0,12,8,5,17,21,19,15,13,4,22,10,1,11,25,24,7},
-                    new Integer[]{9,21,8,2,18,12,1,25,11,0,20,22,10,17,4,16,3,13,7,15,6,14,19,5,24,23},
-                    new Integer[]{14}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -875,12 +953,14 @@ public abstract class Rotor
      */
     public static class Rotor_R_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {13,19,25,15,18,5,1,14,10,12,22,17,2,9,3,8,21,11,0,4,24,20,23,7,6,16};
+        private static final byte[] REVERSED_CONNECTIONS = {18,6,12,14,19,5,24,23,15,13,8,17,9,0,7,3,25,11,4,1,21,16,10,22,20,2};
+        private static final byte[] TURNOVER_NOTCHES = {5};
+
         public Rotor_R_II(int rotation, int ringSetting)
         {
             super(91, "R-II", "NTZPSFBOKMWRCJDIVLAEYUXHGQ",
-                    new Integer[]{13,19,25,15,18,5,1,14,10,12,22,17,2,9,3,8,21,11,0,4,24,20,23,7,6,16},
-                    new Integer[]{18,6,12,14,19,5,24,23,15,13,8,17,9,0,7,3,25,11,4,1,21,16,10,22,20,2},
-                    new Integer[]{5}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -891,12 +971,14 @@ public abstract class Rotor
      */
     public static class Rotor_R_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {9,21,8,20,1,7,19,2,3,24,0,10,4,16,25,15,14,18,6,23,13,17,12,22,5,11};
+        private static final byte[] REVERSED_CONNECTIONS = {10,4,7,8,12,24,18,5,2,0,11,25,22,20,16,15,13,21,17,6,3,1,23,19,9,14};
+        private static final byte[] TURNOVER_NOTCHES = {25};
+
         public Rotor_R_III(int rotation, int ringSetting)
         {
             super(92, "R-III", "JVIUBHTCDYAKEQZPOSGXNRMWFL",
-                    new Integer[]{9,21,8,20,1,7,19,2,3,24,0,10,4,16,25,15,14,18,6,23,13,17,12,22,5,11},
-                    new Integer[]{10,4,7,8,12,24,18,5,2,0,11,25,22,20,16,15,13,21,17,6,3,1,23,19,9,14},
-                    new Integer[]{25}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -907,12 +989,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_I extends Rotor
     {
+        private static final byte[] CONNECTIONS = {10,15,19,24,20,4,11,14,2,21,6,17,5,16,3,0,13,9,12,1,18,22,7,25,23,8};
+        private static final byte[] REVERSED_CONNECTIONS = {15,19,8,14,5,12,10,22,25,17,0,6,18,16,7,1,13,11,20,2,4,9,21,24,3,23};
+        private static final byte[] TURNOVER_NOTCHES = {23,0,5,11,17};
+
         public Rotor_T_I(int rotation, int ringSetting)
         {
             super(100, "T-I", "KPTYUELOCVGRFQDANJMBSWHZXI",
-                    new Integer[]{10,15,19,24,20,4,11,14,2,21,6,17,5,16,3,0,13,9,12,1,18,22,7,25,23,8},
-                    new Integer[]{15,19,8,14,5,12,10,22,25,17,0,6,18,16,7,1,13,11,20,2,4,9,21,24,3,23},
-                    new Integer[]{23,0,5,11,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -923,12 +1007,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_II extends Rotor
     {
+        private static final byte[] CONNECTIONS = {20,15,7,25,11,22,4,16,12,19,3,9,23,2,0,10,18,14,8,6,21,1,24,5,13,17};
+        private static final byte[] REVERSED_CONNECTIONS = {14,21,13,10,6,23,19,2,18,11,15,4,8,24,17,1,7,25,16,9,0,20,5,12,22,3};
+        private static final byte[] TURNOVER_NOTCHES = {23,0,6,12,18};
+
         public Rotor_T_II(int rotation, int ringSetting)
         {
             super(101, "T-II", "UPHZLWEQMTDJXCAKSOIGVBYFNR",
-                    new Integer[]{20,15,7,25,11,22,4,16,12,19,3,9,23,2,0,10,18,14,8,6,21,1,24,5,13,17},
-                    new Integer[]{14,21,13,10,6,23,19,2,18,11,15,4,8,24,17,1,7,25,16,9,0,20,5,12,22,3},
-                    new Integer[]{23,0,6,12,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -939,11 +1025,13 @@ public abstract class Rotor
      */
     public static class Rotor_T_III extends Rotor
     {
+        private static final byte[] CONNECTIONS = {16,20,3,11,24,17,5,4,10,14,13,21,25,0,23,22,7,12,6,15,9,1,18,8,2,19};
+        private static final byte[] REVERSED_CONNECTIONS = {13,21,24,2,7,6,18,16,23,20,8,3,17,10,9,19,0,5,22,25,1,11,15,14,4,12};
+        private static final byte[] TURNOVER_NOTCHES = {23,0,5,11,17};
+
         public Rotor_T_III(int rotation, int ringSetting) {
             super(102, "T-III", "QUDLYRFEKONVZAXWHMGPJBSICT",
-                    new Integer[]{16,20,3,11,24,17,5,4,10,14,13,21,25,0,23,22,7,12,6,15,9,1,18,8,2,19},
-                    new Integer[]{13,21,24,2,7,6,18,16,23,20,8,3,17,10,9,19,0,5,22,25,1,11,15,14,4,12},
-                    new Integer[]{23,0,5,11,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -954,12 +1042,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_IV extends Rotor
     {
+        private static final byte[] CONNECTIONS = {2,8,22,19,1,10,23,13,17,4,18,15,5,11,24,3,0,6,21,7,16,20,14,9,25,12};
+        private static final byte[] REVERSED_CONNECTIONS = {16,4,0,15,9,12,17,19,1,23,5,13,25,7,22,11,20,8,10,3,21,18,2,6,14,24};
+        private static final byte[] TURNOVER_NOTCHES = {23,0,6,12,18};
+
         public Rotor_T_IV(int rotation, int ringSetting)
         {
             super(103, "T-IV", "CIWTBKXNRESPFLYDAGVHQUOJZM",
-                    new Integer[]{2,8,22,19,1,10,23,13,17,4,18,15,5,11,24,3,0,6,21,7,16,20,14,9,25,12},
-                    new Integer[]{16,4,0,15,9,12,17,19,1,23,5,13,25,7,22,11,20,8,10,3,21,18,2,6,14,24},
-                    new Integer[]{23,0,6,12,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -970,12 +1060,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_V extends Rotor
     {
+        private static final byte[] CONNECTIONS = {20,0,23,6,8,18,13,9,1,21,4,17,3,24,11,5,25,22,19,15,2,10,14,7,12,16};
+        private static final byte[] REVERSED_CONNECTIONS = {1,8,20,12,10,15,3,23,4,7,21,14,24,6,22,19,25,11,5,18,0,9,17,2,13,16};
+        private static final byte[] TURNOVER_NOTCHES = {25,3,6,11,18};
+
         public Rotor_T_V(int rotation, int ringSetting)
         {
             super(104, "T-V", "UAXGISNJBVERDYLFZWTPCKOHMQ",
-                    new Integer[]{20,0,23,6,8,18,13,9,1,21,4,17,3,24,11,5,25,22,19,15,2,10,14,7,12,16},
-                    new Integer[]{1,8,20,12,10,15,3,23,4,7,21,14,24,6,22,19,25,11,5,18,0,9,17,2,13,16},
-                    new Integer[]{25,3,6,11,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -986,12 +1078,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_VI extends Rotor
     {
+        private static final byte[] CONNECTIONS = {23,5,20,25,6,0,11,21,7,2,13,24,18,4,22,16,19,3,12,17,1,10,15,8,14,9};
+        private static final byte[] REVERSED_CONNECTIONS = {5,20,9,17,13,1,4,8,23,25,21,6,18,10,24,22,15,19,12,16,2,7,14,0,11,3};
+        private static final byte[] TURNOVER_NOTCHES = {24,5,9,13,17};
+
         public Rotor_T_VI(int rotation, int ringSetting)
         {
             super(105, "T-VI", "XFUZGALVHCNYSEWQTDMRBKPIOJ",
-                    new Integer[]{23,5,20,25,6,0,11,21,7,2,13,24,18,4,22,16,19,3,12,17,1,10,15,8,14,9},
-                    new Integer[]{5,20,9,17,13,1,4,8,23,25,21,6,18,10,24,22,15,19,12,16,2,7,14,0,11,3},
-                    new Integer[]{24,5,9,13,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -1002,12 +1096,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_VII extends Rotor
     {
+        private static final byte[] CONNECTIONS = {1,9,21,5,19,23,15,11,13,0,24,14,25,8,10,22,6,3,16,4,17,20,2,7,18,12};
+        private static final byte[] REVERSED_CONNECTIONS = {9,0,22,17,19,3,16,23,13,1,14,7,25,8,11,6,18,20,24,4,21,2,15,5,10,12};
+        private static final byte[] TURNOVER_NOTCHES = {25,3,6,11,18};
+
         public Rotor_T_VII(int rotation, int ringSetting)
         {
             super(106, "T-VII", "BJVFTXPLNAYOZIKWGDQERUCHSM",
-                    new Integer[]{1,9,21,5,19,23,15,11,13,0,24,14,25,8,10,22,6,3,16,4,17,20,2,7,18,12},
-                    new Integer[]{9,0,22,17,19,3,16,23,13,1,14,7,25,8,11,6,18,20,24,4,21,2,15,5,10,12},
-                    new Integer[]{25,3,6,11,18}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 
@@ -1018,12 +1114,14 @@ public abstract class Rotor
      */
     public static class Rotor_T_VIII extends Rotor
     {
+        private static final byte[] CONNECTIONS = {24,12,19,15,13,25,7,22,10,14,3,0,9,23,4,11,20,16,21,6,2,1,8,18,5,17};
+        private static final byte[] REVERSED_CONNECTIONS = {11,21,20,10,14,24,19,6,22,12,8,15,1,4,9,3,17,25,23,2,16,18,7,13,0,5};
+        private static final byte[] TURNOVER_NOTCHES = {24,5,9,13,17};
+
         public Rotor_T_VIII(int rotation, int ringSetting)
         {
             super(107, "T-VIII", "YMTPNZHWKODAJXELUQVGCBISFR",
-                    new Integer[]{24,12,19,15,13,25,7,22,10,14,3,0,9,23,4,11,20,16,21,6,2,1,8,18,5,17},
-                    new Integer[]{11,21,20,10,14,24,19,6,22,12,8,15,1,4,9,3,17,25,23,2,16,18,7,13,0,5},
-                    new Integer[]{24,5,9,13,17}, ringSetting, rotation);
+                    CONNECTIONS, REVERSED_CONNECTIONS, TURNOVER_NOTCHES, ringSetting, rotation);
         }
     }
 }
\ No newline at end of file
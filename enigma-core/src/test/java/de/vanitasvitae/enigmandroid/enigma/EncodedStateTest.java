@@ -0,0 +1,186 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.vanitasvitae.enigmandroid.enigma.io.StateCodeImporter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Restores encoded states of all machines in every supported way and compares the results with
+ * the machines the states were taken from, including plugboards and rewirable reflectors.
+ */
+public class EncodedStateTest
+{
+	private static final int STATES_PER_MACHINE = 50;
+
+	@Test
+	public void testCreateEnigmaFromEncodedState()
+	{
+		Random rand = new Random(17);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < STATES_PER_MACHINE; i++)
+			{
+				Enigma enigma = Enigma.createEnigma(type);
+				enigma.randomState(new Random(rand.nextLong()));
+				BigInteger code = enigma.getEncodedState();
+				assertSameMachine(type, enigma, Enigma.createEnigmaFromEncodedState(code));
+				assertSameMachine(type, enigma,
+						Enigma.createEnigmaFromCode(Enigma.APP_ID + "/" + code.toString(16)));
+			}
+		}
+	}
+
+	/**
+	 * createEnigmaFromEncodedState() reads the protocol version and the machine type with an
+	 * EncodedStateReader. Compare it with peeling both digits off by hand and calling
+	 * restoreState() on a machine of that type.
+	 */
+	@Test
+	public void testCompatibilityWithRestoreState()
+	{
+		Random rand = new Random(19);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < STATES_PER_MACHINE; i++)
+			{
+				Enigma enigma = Enigma.createEnigma(type);
+				enigma.randomState(new Random(rand.nextLong()));
+				BigInteger code = enigma.getEncodedState();
+				assertEquals(type, Enigma.latest_protocol_version,
+						Enigma.getValue(code, Enigma.max_protocol_version));
+				BigInteger mem = Enigma.removeDigit(code, Enigma.max_protocol_version);
+				assertEquals(type, type, Enigma.chooseEnigmaFromSave(mem));
+				Enigma restored = Enigma.createEnigma(type);
+				restored.restoreState(Enigma.removeDigit(mem, 20), Enigma.latest_protocol_version);
+				assertSameMachine(type, restored, Enigma.createEnigmaFromEncodedState(code));
+				assertSameMachine(type, enigma, restored);
+			}
+		}
+	}
+
+	@Test
+	public void testEncodedStateReader()
+	{
+		Random rand = new Random(23);
+		for (int i = 0; i < 1000; i++)
+		{
+			BigInteger s = new BigInteger(1 + rand.nextInt(400), rand);
+			EncodedStateReader reader = new EncodedStateReader(s);
+			while (s.signum() > 0)
+			{
+				int radix = 2 + rand.nextInt(300);
+				assertEquals("radix " + radix, Enigma.getValue(s, radix), reader.next(radix));
+				s = Enigma.removeDigit(s, radix);
+				assertEquals("remainder", s, reader.remainder());
+			}
+		}
+	}
+
+	@Test
+	public void testStateCodeImporter() throws IOException
+	{
+		Random rand = new Random(29);
+		List<Enigma> machines = new ArrayList<>();
+		StringBuilder list = new StringBuilder("# state codes\n\n");
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < 5; i++)
+			{
+				Enigma enigma = Enigma.createEnigma(type);
+				enigma.randomState(new Random(rand.nextLong()));
+				machines.add(enigma);
+				String code = enigma.getEncodedState().toString(16);
+				list.append(i % 2 == 0 ? code : "  " + Enigma.APP_ID + "/" + code + " ").append('\n');
+			}
+		}
+		StateCodeImporter importer = new StateCodeImporter(new StringReader(list.toString()));
+		try
+		{
+			for (int i = 0; i < machines.size(); i++)
+			{
+				Enigma enigma = machines.get(i);
+				EnigmaConfig config = importer.next();
+				String type = enigma.getMachineType();
+				assertEquals(type, type, config.getMachineType());
+				assertEquals(type, i + 3, importer.getLineNumber());
+				EnigmaCursor cursor = config.createCursor();
+				for (int k = 0; k < 1000; k++)
+				{
+					char c = (char) ('A' + rand.nextInt(26));
+					assertEquals(type, enigma.encryptChar(c), cursor.encryptChar(c));
+				}
+			}
+			assertNull(importer.next());
+		}
+		finally
+		{
+			importer.close();
+		}
+	}
+
+	/**
+	 * Compare the complete state of both machines and the text they produce.
+	 */
+	private static void assertSameMachine(String type, Enigma expected, Enigma actual)
+	{
+		assertEquals(type, expected.getMachineType(), actual.getMachineType());
+		assertEquals(type, expected.getEncodedState(), actual.getEncodedState());
+		EnigmaStateBundle e = expected.getState();
+		EnigmaStateBundle a = actual.getState();
+		assertEquals(type, e.getTypeEntryWheel(), a.getTypeEntryWheel());
+		assertEquals(type, e.getTypeRotor1(), a.getTypeRotor1());
+		assertEquals(type, e.getTypeRotor2(), a.getTypeRotor2());
+		assertEquals(type, e.getTypeRotor3(), a.getTypeRotor3());
+		assertEquals(type, e.getTypeRotor4(), a.getTypeRotor4());
+		assertEquals(type, e.getRotationRotor1(), a.getRotationRotor1());
+		assertEquals(type, e.getRotationRotor2(), a.getRotationRotor2());
+		assertEquals(type, e.getRotationRotor3(), a.getRotationRotor3());
+		assertEquals(type, e.getRotationRotor4(), a.getRotationRotor4());
+		assertEquals(type, e.getRingSettingRotor1(), a.getRingSettingRotor1());
+		assertEquals(type, e.getRingSettingRotor2(), a.getRingSettingRotor2());
+		assertEquals(type, e.getRingSettingRotor3(), a.getRingSettingRotor3());
+		assertEquals(type, e.getRingSettingRotor4(), a.getRingSettingRotor4());
+		assertEquals(type, e.getTypeReflector(), a.getTypeReflector());
+		assertEquals(type, e.getRotationReflector(), a.getRotationReflector());
+		assertEquals(type, e.getRingSettingReflector(), a.getRingSettingReflector());
+		assertArrayEquals(type + " plugboard", e.getConfigurationPlugboard(),
+				a.getConfigurationPlugboard());
+		assertArrayEquals(type + " reflector", e.getConfigurationReflector(),
+				a.getConfigurationReflector());
+
+		Enigma reference = expected.copy();
+		char[] text = new char[500];
+		for (int i = 0; i < text.length; i++) text[i] = (char) ('A' + i * 7 % 26);
+		char[] out = new char[text.length];
+		for (int i = 0; i < text.length; i++) out[i] = reference.encryptChar(text[i]);
+		char[] restored = new char[text.length];
+		actual = actual.copy();
+		for (int i = 0; i < text.length; i++) restored[i] = actual.encryptChar(text[i]);
+		assertArrayEquals(type, out, restored);
+	}
+}
@@ -0,0 +1,231 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares every way of encrypting a message with sending its chars through encryptChar() one by
+ * one, for all machines starting from random states.
+ */
+public class EncryptionPathsTest
+{
+	private static final int STATES_PER_MACHINE = 20;
+	private static final int MESSAGE_LENGTH = 2000;
+
+	@Test
+	public void testCompiledTables()
+	{
+		Random rand = new Random(1);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < STATES_PER_MACHINE; i++)
+			{
+				Enigma reference = createRandomEnigma(type, rand);
+				Enigma enigma = reference.copy();
+				enigma.setUseCompiledTables(true);
+				assertSameEncryption(type, reference, enigma, randomText(rand, MESSAGE_LENGTH));
+			}
+		}
+	}
+
+	@Test
+	public void testPermutationTable()
+	{
+		Random rand = new Random(2);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			Enigma reference = createRandomEnigma(type, rand);
+			Enigma enigma = reference.copy();
+			enigma.setPermutationTable(enigma.createPermutationTable(Integer.MAX_VALUE));
+			assertSameEncryption(type, reference, enigma, randomText(rand, MESSAGE_LENGTH));
+		}
+	}
+
+	@Test
+	public void testAdvance()
+	{
+		Random rand = new Random(3);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < STATES_PER_MACHINE; i++)
+			{
+				Enigma reference = createRandomEnigma(type, rand);
+				Enigma enigma = reference.copy();
+				int steps = rand.nextInt(MESSAGE_LENGTH);
+				for (int k = 0; k < steps; k++) reference.encryptChar('A');
+				enigma.advance(steps);
+				assertEquals(type, positions(reference), positions(enigma));
+				assertSameEncryption(type, reference, enigma, randomText(rand, 100));
+			}
+		}
+	}
+
+	/**
+	 * Compare advance() with stepping over enough steps to pass every turnover of all rotors many
+	 * times, which takes more than 26^3 steps on the machines with three or more rotors.
+	 */
+	@Test
+	public void testAdvanceManySteps()
+	{
+		Random rand = new Random(6);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < 2; i++)
+			{
+				Enigma reference = createRandomEnigma(type, rand);
+				Enigma enigma = reference.copy();
+				int steps = 100000 + rand.nextInt(1000);
+				for (int k = 0; k < steps; k++) reference.nextState();
+				enigma.advance(steps);
+				assertEquals(type, positions(reference), positions(enigma));
+				assertSameEncryption(type, reference, enigma, randomText(rand, 100));
+			}
+		}
+	}
+
+	/**
+	 * Advancing twice by a huge number of steps must end in the same state as advancing once by
+	 * their sum, and as a sequence of smaller jumps.
+	 */
+	@Test
+	public void testAdvanceHugeSteps()
+	{
+		Random rand = new Random(7);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < STATES_PER_MACHINE; i++)
+			{
+				Enigma reference = createRandomEnigma(type, rand);
+				Enigma twice = reference.copy();
+				Enigma jumps = reference.copy();
+				long n = 1000000000000L + (rand.nextLong() & 0xffffffffffL);
+				reference.advance(2 * n);
+				twice.advance(n);
+				twice.advance(n);
+				assertEquals(type, positions(reference), positions(twice));
+				for (long rest = 2 * n; rest > 0; )
+				{
+					long jump = Math.min(rest, 1 + (rand.nextLong() & 0xffffffffffL));
+					jumps.advance(jump);
+					rest -= jump;
+				}
+				assertEquals(type, positions(reference), positions(jumps));
+				assertSameEncryption(type, reference, twice, randomText(rand, 100));
+			}
+		}
+	}
+
+	@Test
+	public void testCursor()
+	{
+		Random rand = new Random(4);
+		for (String type : PreviousStateTest.TYPES)
+		{
+			for (int i = 0; i < STATES_PER_MACHINE; i++)
+			{
+				Enigma reference = createRandomEnigma(type, rand);
+				EnigmaCursor cursor = reference.getConfig().createCursor();
+				char[] text = randomText(rand, MESSAGE_LENGTH);
+				char[] expected = new char[text.length];
+				char[] actual = new char[text.length];
+				for (int k = 0; k < text.length; k++)
+				{
+					expected[k] = reference.encryptChar(text[k]);
+					actual[k] = cursor.encryptChar(text[k]);
+				}
+				assertArrayEquals(type, expected, actual);
+				assertEquals(type, positions(reference), positions(reference, cursor.getState()));
+			}
+		}
+	}
+
+	@Test
+	public void testParallel() throws InterruptedException
+	{
+		Random rand = new Random(5);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			for (String type : PreviousStateTest.TYPES)
+			{
+				Enigma reference = createRandomEnigma(type, rand);
+				Enigma enigma = reference.copy();
+				enigma.setUseCompiledTables(true);
+				char[] text = randomText(rand, 300 * 1024);
+				char[] expected = new char[text.length];
+				char[] actual = new char[text.length];
+				for (int k = 0; k < text.length; k++) expected[k] = reference.encryptChar(text[k]);
+				enigma.encrypt(text, 0, text.length, actual, 0, executor);
+				assertArrayEquals(type, expected, actual);
+				assertEquals(type, positions(reference), positions(enigma));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	private static Enigma createRandomEnigma(String type, Random rand)
+	{
+		Enigma enigma = Enigma.createEnigma(type);
+		enigma.randomState(new Random(rand.nextLong()));
+		return enigma;
+	}
+
+	/**
+	 * Return the packed state of the enigma without the rotation of a reflector that neither
+	 * rotates nor steps. That rotation has no effect and is not kept by copy() (eg. on the M4).
+	 */
+	private static int positions(Enigma enigma)
+	{
+		return positions(enigma, enigma.getPackedState());
+	}
+
+	private static int positions(Enigma enigma, int state)
+	{
+		if (enigma.hasRotatableReflector() || enigma.hasSteppingReflector()) return state;
+		return state & ~(CompiledEnigma.ROTATION_MASK << CompiledEnigma.REFLECTOR_SHIFT);
+	}
+
+	private static char[] randomText(Random rand, int length)
+	{
+		char[] text = new char[length];
+		for (int i = 0; i < text.length; i++) text[i] = (char) ('A' + rand.nextInt(26));
+		return text;
+	}
+
+	/**
+	 * Encrypt text char by char with reference and in bulk with enigma, then compare the results
+	 * and the states both machines end up in.
+	 */
+	private static void assertSameEncryption(String type, Enigma reference, Enigma enigma, char[] text)
+	{
+		char[] expected = new char[text.length];
+		for (int i = 0; i < text.length; i++) expected[i] = reference.encryptChar(text[i]);
+		char[] actual = new char[text.length];
+		enigma.encrypt(text, 0, text.length, actual, 0);
+		assertArrayEquals(type, expected, actual);
+		assertEquals(type, positions(reference), positions(enigma));
+	}
+}
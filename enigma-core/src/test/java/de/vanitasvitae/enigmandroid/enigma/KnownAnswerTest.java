@@ -0,0 +1,148 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Encrypts a fixed message from fixed states of every machine and compares the result with the
+ * ciphertext the original implementation of the machines produced, before encryptChar() and the
+ * faster engines were introduced. Unlike the other tests, this does not only compare the engines
+ * with each other.
+ * The states were set with setStateFromSeed("known answer " + type + " " + n).
+ */
+public class KnownAnswerTest
+{
+	private static final String PLAINTEXT = "DASOBERKOMMANDODERWEHRMACHTGIBTBEKANNTAACHENISTGERETTET"
+			+ "DURCHGEBUENDELTENEINSATZDERHILFSKRAEFTEKONNTEDIEBEDROHUNGABGEWENDET";
+
+	/** Machine type, state code and ciphertext of PLAINTEXT */
+	private static final String[][] VECTORS = {
+			{"I", "3849a112f0e801",
+					"VNVMLXZNLHOMWGXRIXYZEFIDHUJZJGJDXMZZDBTOPQJEKKILNLNWYSQFVFRULWZGCRUNELZCRCJBZDJRJNOFNTWRDKSAFBFRTDHTJRKDFMMHWHHKEAWSTPTMSS"},
+			{"I", "a4b90112ce171d8907ff4c0771e752fec01",
+					"HSWGHPEJMSORUTZEHJNJWJOVIVBFOVWDCUVXZVUOXKXPQXNDIHRJABEGBVWPIKXDTEGIZFHTSTWVHAQQLFJRFELGWTSHXLTEFJUPSQHUKNVINHCPMDRUDVCYFW"},
+			{"M3", "e40d5b68eb3cf617e2103fc1477d7a356ec91501",
+					"SHKESOZXBKIXDQFNKXABEWCGWAZMVAPVWUIDAYZMFYBOCMKCBGABDTULWZXRSZLQDYIRKAFZLXZKNNLAGDWNTEXMJVTJSCHRQAEWKBXRJUUDDVRHDEOVALJIIQ"},
+			{"M3", "98b026c1fcf501",
+					"EDTNRJAOGLXKYVKOJVYLUQEVUTWECEYLWEBTBLHWRNQFPZPYLWUBPVUQRJGGIOXFQYNNHHUANEBQBFCYUNSBOULHMRYVFQUFAOHJURPPKFCJJKLMTHTDZZZURF"},
+			{"M4", "bcd03caf5f1344d37798dc6601",
+					"ZNMBDCOFHSYIYVSUZCNIQHRBAINJYXEPYQPQVFWPRASHDFFXDEBXDFYJWXKGRTRHNKEHFIWGALJOFONGHDNGRXYEWUDPUKXRRYCAGMSRKLWCTSECCLLTTRCJAU"},
+			{"M4", "1883cb811c11386a1b4982f48e256856a1224a601",
+					"UDJGFJXXXUPNFFDNWNIFYEETGGPONCDUWNLZVNXUHIKAPWUQAQWJAHJUGURUDBUSDGJWCMPWNTQDLVLLVNWTGHFBUCBHFPZNZXHLWPOMXVZVDRXNSNRTTDDLIU"},
+			{"G31", "275560a4c5bb01",
+					"TZNXUGMFBQWFHNYAZJGWELLVOPWSMPSNJRXRTFYSOFWSRAAXGJORZQBISTMDDVFPPMBWEHSHQNRVCIUETHYDXDBUYKPKKSXCHAUWPCJPDSAEDSXRYJSRZDUXDU"},
+			{"G31", "da86fffcc0701",
+					"RHUGAQMTLWHWGFZWNSAURJNFBJNLWPFNDDDBLUBGJELYJWPRVBVCKXBKHYYNXOGQIIGJEUDEZHURLACXVCQBRRKYSPHEDNDFZZRXMWYIWKLIWOOMFXXZAICYPK"},
+			{"G312", "424830cd95b801",
+					"KYWNGKKWHDYZEHCGOTAFRPSHRPWEAQVXDXWZAODCJLUEXXYSQIGXNYSXAPVLVXSZRJGPPRBYQJJIOLXLBWFKDVNYZXVRSSJUGSZSIJOZLYKMMCYOKHVXCLQINA"},
+			{"G312", "24a95eb380e401",
+					"BOBMDIKORHJQDUGQIQYBIFWLUUSOQUOKLTUTMFFPXGPRSMGXWBMOCSOZNAXXYDIPNPFGUSKQXVJUKBQJFGYFSKJSKOZUMFFBMTSUQUPKSRYAYKBJEAAYNUYLYM"},
+			{"G260", "1faaabce8d6501",
+					"MMYLKYLLGZFOQMGMRHDWOMBBOYWIYWLUBOHKXJMOQPFRAXQJCYPKPIGKBNYZTGGNPCGPNYSTCQAXYFGZGGRPQOLXAENHKMLFGBUWGWZWXUQLFOBYVUMWYDDLWB"},
+			{"G260", "647ae6947f3501",
+					"GUPBNUAGBYRCXRJBJWYYCAFCKIHBHVFPQNIIYOPKPCRLVCDWNIZBGFPBPVGFBDYXCDODYCBBICHAOWYTHKKCIHGEDQTGEGIKEQUCLORTMIFBJBDDPVVYSABVWV"},
+			{"D", "4c451ee17760aeb2887935b7b9adb35e0dfb584942e01",
+					"ZCLUSLYVWWWLUBNZQAIHKPFIKOOASTDYIONFWPUDPLCZLWRLFHKVAIWHNZAIXNTIRUZSUIRSOLQOPEQZMPEFEUNRVQSNHINIALVATHSGIMDSCCPOOKIJTFPQGD"},
+			{"D", "4c461ccf280a94d4395055f6596d05cae1f674af97e01",
+					"UDRZAWUPCAITEIXGWVPXEPNRVWHXLLIFDWBWRSHEGARJMQFMWYOWCKQUCTOYYQCXGFJSWYIJDSCZHITZYPAKXJHFSIRJCHTRAYIXBPHYWAPICFBOJAOOTPPZCG"},
+			{"K", "2e298bebba9b01",
+					"FOTWRBXXETFKMLWSGLUAIZJUPIRLLCKIRAWZOPIMERYKSIMPICAJYKBOPLQMBQXROSFTPNULCJFBSGISZKPYJLGWTRWXBFYZFJJSAWLJTBZRUDXVFHQUYFABND"},
+			{"K", "33c1673d88cb01",
+					"NOPWAUCWCNZSKLFMFKIOACNVONZAGTHSLTFWKILNBPDWQOXXRGOSHHYKXCFXAMZBVKZNPRNSOLABFBMJABWRWIDVWEZPXRWFUGYGWEYMUYGISSVZYHHOCHYXAU"},
+			{"KS", "36395c34333401",
+					"RTVBDJABJFWHHEFGPNLIIOASQTIYYRGOMIJUUFWEVUDEKBPQBQDPRGKOQMATZCSTPYNMFGCSSOQQGDNKFFDYYAXCXTDBFYJUAAOTPQXPXTEKZWAUPJZBYMAQKY"},
+			{"KS", "1b9f3ba3116c01",
+					"BOBPZJZENAZVOJWLADNTBDECJAQOFDCYIIFBXUMQFUSHRWGXSTQRGLDXFQPGNLOCLPTPJVYEUVUHEUSBWPLOMGLTPJVJERVXMEFTKDWZOBWARZEJRPMFODSNTD"},
+			{"KSA", "26d73aea56e901",
+					"RBERFFWPXNCQVLWLWHGDKTAQXIRRUDFTYRVEBGRDJNKBQQDJMPSRODGGLGTKYCPDLKUNYEHQUUICZISBPWMXAMQEXGUGSTFSWFXWKCJWWETYGQVJXMNASGTHOZ"},
+			{"KSA", "49955f67bd501",
+					"YGXUNOXXTTQTIZSQFVKNCLJXWLGEPUKABNURXVRKUJXQVJCTBUPINXLOFMLZQUTXIBOSKWOOMJWNBFNEMNPARAHDLVCAJAOBLFKOKSFSWBIGYMRXVKQDSFCMSJ"},
+			{"R", "46cd72f8a09e01",
+					"YIDIWNTPLGIQJRLVGOLOQMFRJAYHUSMOTOOBTYOKJLRZFAWRLUOOLURPKTQPHTVEXENAVLNFCHDOEEVRGLSMKAQHTESMWWGPKVGNAZCMSSQPLYJKHMMBYWMUTJ"},
+			{"R", "513298a5eada01",
+					"TCQPUMGEMKPLGURGQZXUMMGNKYIZHWVZSGGRGNJCEOTZPIGAHQQFYUMYJJSTKZAOMWHVTUXQPKLRFOWRBNLQCBYTLEGQDSQYQFIZFQVIJMHCWXEYESYBKSVHZQ"},
+			{"T", "29fa21023011f01",
+					"YIZHCVQIYZWTGYMBXCSKGJZSUNWIPXHVLHXZVGNXBWYJGHINKZWOYVOYNYLTKPTHFCFZRAVOAPXRVXWTHBXHZNNHXJUHGRMNTEFNPOLCVNOZTCTDYLQORRVIVW"},
+			{"T", "24494a7c4dc5f01",
+					"YDPWLSUIHYVBWVHCBIXPQGRJLUPWHHYXILCXOHHDPKPPMWPZNVFEIAVRSUJPCONNAVSINRUBRJFHTVUQVCSBHLDVYPPNBCQLWIOUCKFKIXSRTSQCEJBCSPONCJ"},
+			{"KD", "80b8064dc246f4f257def031dd10bde9c2515609971801",
+					"ROWTQKSUUJBTGHICNVVHQOSVOPGXQHVPHMDQUIQNVCOXOKKXDUIAUIGFNBTGQZEBPLGVCPLZZVVTPQGNVNUWBWVSHMLJVGOPQOXXXKPUKYFYVXEZPOEDMZYZHO"},
+			{"KD", "80d2272e97d895a131916d7f40c84f81142185f7df5401",
+					"XPFSMATLPYIMHECFRKKTSDCSEMKFPTGQKODBTLFTNXITDZOLYGSWCWDJSVJMLLNTYHIGXGLBRMAKBOQUWJBZQSRJGGBZZZLWMZUCBTYNQQTHLFUOPLKBYKTEZN"}
+	};
+
+	@Test
+	public void testEncryptChar()
+	{
+		for (String[] vector : VECTORS)
+		{
+			Enigma enigma = createEnigma(vector);
+			StringBuilder out = new StringBuilder();
+			for (int i = 0; i < PLAINTEXT.length(); i++) out.append(enigma.encryptChar(PLAINTEXT.charAt(i)));
+			assertEquals(vector[1], vector[2], out.toString());
+		}
+	}
+
+	@Test
+	public void testCompiledTables()
+	{
+		for (String[] vector : VECTORS)
+		{
+			Enigma enigma = createEnigma(vector);
+			enigma.setUseCompiledTables(true);
+			assertEquals(vector[1], vector[2], enigma.encryptString(PLAINTEXT));
+		}
+	}
+
+	@Test
+	public void testPermutationTable()
+	{
+		for (String[] vector : VECTORS)
+		{
+			Enigma enigma = createEnigma(vector);
+			enigma.setPermutationTable(enigma.createPermutationTable(Integer.MAX_VALUE));
+			assertEquals(vector[1], vector[2], enigma.encryptString(PLAINTEXT));
+		}
+	}
+
+	@Test
+	public void testCursor()
+	{
+		for (String[] vector : VECTORS)
+		{
+			EnigmaCursor cursor = createEnigma(vector).getConfig().createCursor();
+			assertEquals(vector[1], vector[2], cursor.encryptString(PLAINTEXT));
+		}
+	}
+
+	@Test
+	public void testDecrypt()
+	{
+		for (String[] vector : VECTORS)
+		{
+			assertEquals(vector[1], PLAINTEXT, createEnigma(vector).encryptString(vector[2]));
+		}
+	}
+
+	private static Enigma createEnigma(String[] vector)
+	{
+		Enigma enigma = Enigma.createEnigmaFromCode(vector[1]);
+		assertEquals(vector[1], vector[0], enigma.getMachineType());
+		return enigma;
+	}
+}
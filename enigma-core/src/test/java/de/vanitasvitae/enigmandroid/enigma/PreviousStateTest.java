@@ -0,0 +1,110 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.enigma;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that previousState() exactly undoes nextState() on every machine, starting from states
+ * that were set directly and might not be reachable via nextState().
+ */
+public class PreviousStateTest
+{
+	static final String[] TYPES = {"I", "M3", "M4", "G31", "G312", "G260", "D", "K", "KS", "KSA",
+			"R", "T", "KD"};
+
+	@Test
+	public void testRoundTripFromRandomState()
+	{
+		Random rand = new Random(7);
+		for (String type : TYPES)
+		{
+			for (int i = 0; i < 50; i++)
+			{
+				Enigma enigma = Enigma.createEnigma(type);
+				enigma.randomState(new Random(rand.nextLong()));
+				assertRoundTrip(type, enigma, 1 + rand.nextInt(2000));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTripFromRandomPackedState()
+	{
+		Random rand = new Random(11);
+		for (String type : TYPES)
+		{
+			for (int i = 0; i < 50; i++)
+			{
+				Enigma enigma = Enigma.createEnigma(type);
+				enigma.randomState(new Random(rand.nextLong()));
+				int state = rand.nextBoolean() ? CompiledEnigma.ANOMALY : 0;
+				for (int r = 0; r < enigma.getRotors().length; r++)
+				{
+					state |= rand.nextInt(26) << (r * CompiledEnigma.BITS);
+				}
+				if (enigma.hasSteppingReflector())
+				{
+					state |= rand.nextInt(26) << CompiledEnigma.REFLECTOR_SHIFT;
+				}
+				enigma.setPackedState(state);
+				assertRoundTrip(type, enigma, 1 + rand.nextInt(2000));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTripAfterBulkEncryption()
+	{
+		Random rand = new Random(13);
+		for (String type : TYPES)
+		{
+			Enigma enigma = Enigma.createEnigma(type);
+			enigma.randomState(new Random(rand.nextLong()));
+			enigma.setUseCompiledTables(true);
+			int start = enigma.getPackedState();
+			char[] text = new char[3000];
+			for (int i = 0; i < text.length; i++) text[i] = (char) ('A' + rand.nextInt(26));
+			enigma.encrypt(text, 0, text.length, text, 0);
+			enigma.advance(500);
+			for (int i = 0; i < text.length + 500; i++) enigma.previousState();
+			assertEquals(type, start, enigma.getPackedState());
+		}
+	}
+
+	/**
+	 * Step the enigma forward the given number of times, then step back and compare every state
+	 * with the one it had on the way forward.
+	 */
+	private static void assertRoundTrip(String type, Enigma enigma, int steps)
+	{
+		int[] states = new int[steps + 1];
+		states[0] = enigma.getPackedState();
+		for (int i = 1; i <= steps; i++)
+		{
+			enigma.nextState();
+			states[i] = enigma.getPackedState();
+		}
+		for (int i = steps - 1; i >= 0; i--)
+		{
+			enigma.previousState();
+			assertEquals(type + " step " + i, states[i], enigma.getPackedState());
+		}
+	}
+}
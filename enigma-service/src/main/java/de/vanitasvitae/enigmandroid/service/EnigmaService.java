@@ -0,0 +1,293 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.vanitasvitae.enigmandroid.enigma.Enigma;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaConfigCache;
+import de.vanitasvitae.enigmandroid.enigma.EnigmaCursor;
+import de.vanitasvitae.enigmandroid.enigma.inputPreparer.InputPreparer;
+
+/**
+ * Embeddable local HTTP service that encrypts text.
+ * POST a JSON object {"stateCode": "...", "text": "..."} to /encrypt to get {"text": "..."}
+ * back. The state code is the hexadecimal code the app shares, the optional member
+ * "numericLanguage" selects the language numbers are spelled in.
+ * Requests are handled on virtual threads if the JRE supports them and on a cached thread pool
+ * otherwise. Machines are built once per state code and shared between requests via an
+ * EnigmaConfigCache, whose counters can be fetched as JSON object via GET /metrics.
+ */
+public class EnigmaService
+{
+	private static final Logger LOG = Logger.getLogger(Enigma.APP_ID);
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	public static final int DEFAULT_PORT = 8080;
+	/** Maximum size of a request body in bytes */
+	public static final int MAX_REQUEST_SIZE = 1024 * 1024;
+
+	private static final String[] NUMERIC_LANGUAGES = {"de", "en", "fr", "sp", "it"};
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final EnigmaConfigCache cache;
+	private final Map<String, InputPreparer> preparers = new HashMap<>();
+	private final InputPreparer defaultPreparer = InputPreparer.createInputPreparer(true, null);
+
+	/**
+	 * Create a service listening on the loopback interface.
+	 * @param port port to listen on (0 for any free port)
+	 * @param cache cache of the machine configurations
+	 * @throws IOException if the port can not be bound
+	 */
+	public EnigmaService(int port, EnigmaConfigCache cache) throws IOException
+	{
+		this.cache = cache;
+		for (String language : NUMERIC_LANGUAGES)
+		{
+			preparers.put(language, InputPreparer.createInputPreparer(true, language));
+		}
+		this.server = HttpServer.create(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.executor = createExecutor();
+		server.setExecutor(executor);
+		server.createContext("/encrypt", new EncryptHandler());
+		server.createContext("/metrics", new MetricsHandler());
+	}
+
+	/**
+	 * Create an executor that runs every task on a new virtual thread, if the JRE supports
+	 * virtual threads, or on a cached thread pool otherwise.
+	 * @return executor
+	 */
+	static ExecutorService createExecutor()
+	{
+		try
+		{
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	public void start()
+	{
+		server.start();
+	}
+
+	/**
+	 * Stop the service, waiting at most delay seconds for running requests.
+	 * @param delay seconds to wait
+	 */
+	public void stop(int delay)
+	{
+		server.stop(delay);
+		executor.shutdown();
+		try
+		{
+			executor.awaitTermination(delay, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public int getPort()
+	{
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Encrypt a text.
+	 * @param stateCode hexadecimal encoded state of the machine
+	 * @param text text to prepare and encrypt
+	 * @param numericLanguage language numbers are spelled in or null to drop numbers
+	 * @return encrypted text
+	 * @throws IllegalArgumentException if the state code or the language is invalid
+	 */
+	public String encrypt(String stateCode, String text, String numericLanguage)
+	{
+		InputPreparer preparer = defaultPreparer;
+		if (numericLanguage != null)
+		{
+			preparer = preparers.get(numericLanguage);
+			if (preparer == null)
+				throw new IllegalArgumentException("Unknown numericLanguage " + numericLanguage);
+		}
+		EnigmaCursor cursor = cache.get(stateCode).createCursor();
+		return cursor.encryptString(preparer.prepareString(text));
+	}
+
+	private class EncryptHandler implements HttpHandler
+	{
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try
+			{
+				if (!"POST".equals(exchange.getRequestMethod()))
+				{
+					exchange.getResponseHeaders().set("Allow", "POST");
+					respond(exchange, 405, "error", "Method not allowed");
+					return;
+				}
+				String body = readBody(exchange.getRequestBody());
+				if (body == null)
+				{
+					respond(exchange, 413, "error", "Request too large");
+					return;
+				}
+				String result;
+				try
+				{
+					Map<String, String> request = Json.parseObject(body);
+					String stateCode = request.get("stateCode");
+					String text = request.get("text");
+					if (stateCode == null || text == null)
+						throw new IllegalArgumentException("stateCode and text are required");
+					result = encrypt(stateCode, text, request.get("numericLanguage"));
+				}
+				catch (IllegalArgumentException e)
+				{
+					respond(exchange, 400, "error", e.getMessage());
+					return;
+				}
+				respond(exchange, 200, "text", result);
+			}
+			catch (IOException | RuntimeException e)
+			{
+				LOG.log(Level.WARNING, "Request failed", e);
+				throw e;
+			}
+			finally
+			{
+				exchange.close();
+			}
+		}
+
+		/**
+		 * Read the request body.
+		 * @param in body
+		 * @return body or null if it exceeds MAX_REQUEST_SIZE
+		 * @throws IOException if reading fails
+		 */
+		private String readBody(InputStream in) throws IOException
+		{
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) != -1)
+			{
+				if (body.size() + n > MAX_REQUEST_SIZE) return null;
+				body.write(buffer, 0, n);
+			}
+			return new String(body.toByteArray(), UTF_8);
+		}
+	}
+
+	private class MetricsHandler implements HttpHandler
+	{
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try
+			{
+				Map<String, Number> metrics = new LinkedHashMap<>();
+				metrics.put("size", cache.size());
+				metrics.put("memorySize", cache.getMemorySize());
+				metrics.put("maxMemorySize", cache.getMaxMemorySize());
+				metrics.put("hits", cache.getHitCount());
+				metrics.put("misses", cache.getMissCount());
+				metrics.put("evictions", cache.getEvictionCount());
+				respond(exchange, 200, metrics);
+			}
+			finally
+			{
+				exchange.close();
+			}
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String key, String value)
+			throws IOException
+	{
+		Map<String, String> response = new HashMap<>();
+		response.put(key, value);
+		respond(exchange, status, response);
+	}
+
+	private static void respond(HttpExchange exchange, int status, Map<String, ?> response)
+			throws IOException
+	{
+		byte[] bytes = Json.toObject(response).getBytes(UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(bytes);
+		out.close();
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		int port = DEFAULT_PORT;
+		if (args.length > 0)
+		{
+			try
+			{
+				port = Integer.parseInt(args[0]);
+			}
+			catch (NumberFormatException e)
+			{
+				System.err.println("Usage: enigma-service [PORT]");
+				System.exit(2);
+			}
+		}
+		final EnigmaService service = new EnigmaService(port, new EnigmaConfigCache());
+		Runtime.getRuntime().addShutdownHook(new Thread()
+		{
+			@Override
+			public void run()
+			{
+				service.stop(1);
+			}
+		});
+		service.start();
+		System.err.println("Listening on http://localhost:" + service.getPort() + "/encrypt");
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.vanitasvitae.enigmandroid.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the flat objects of strings and numbers the service exchanges.
+ */
+final class Json
+{
+	private Json()
+	{
+	}
+
+	/**
+	 * Parse a JSON object whose values are strings, numbers, booleans or null. Nested objects and
+	 * arrays are not supported. Values that are not strings are returned as their literal text.
+	 * @param json JSON text
+	 * @return map of the members
+	 * @throws IllegalArgumentException if the text is no valid flat JSON object
+	 */
+	static Map<String, String> parseObject(String json)
+	{
+		Parser parser = new Parser(json);
+		Map<String, String> members = parser.parseObject();
+		parser.skipWhitespace();
+		if (parser.position != json.length()) throw parser.error();
+		return members;
+	}
+
+	/**
+	 * Serialize a map as JSON object. Numbers are written as JSON numbers, all other values as
+	 * strings.
+	 * @param members members of the object
+	 * @return JSON text
+	 */
+	static String toObject(Map<String, ?> members)
+	{
+		StringBuilder sb = new StringBuilder("{");
+		for (Map.Entry<String, ?> member : members.entrySet())
+		{
+			if (sb.length() > 1) sb.append(',');
+			quote(sb, member.getKey());
+			sb.append(':');
+			Object value = member.getValue();
+			if (value instanceof Number) sb.append(value);
+			else quote(sb, String.valueOf(value));
+		}
+		return sb.append('}').toString();
+	}
+
+	private static void quote(StringBuilder sb, String s)
+	{
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			switch (c)
+			{
+				case '"': sb.append("\\\""); break;
+				case '\\': sb.append("\\\\"); break;
+				case '\n': sb.append("\\n"); break;
+				case '\r': sb.append("\\r"); break;
+				case '\t': sb.append("\\t"); break;
+				default:
+					if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+					else sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	private static class Parser
+	{
+		private final String json;
+		private int position;
+
+		Parser(String json)
+		{
+			this.json = json;
+		}
+
+		Map<String, String> parseObject()
+		{
+			Map<String, String> members = new HashMap<>();
+			expect('{');
+			skipWhitespace();
+			if (peek() == '}')
+			{
+				position++;
+				return members;
+			}
+			while (true)
+			{
+				skipWhitespace();
+				String key = parseString();
+				skipWhitespace();
+				expect(':');
+				skipWhitespace();
+				members.put(key, peek() == '"' ? parseString() : parseLiteral());
+				skipWhitespace();
+				char c = next();
+				if (c == '}') return members;
+				if (c != ',') throw error();
+			}
+		}
+
+		String parseString()
+		{
+			expect('"');
+			StringBuilder sb = new StringBuilder();
+			while (true)
+			{
+				char c = next();
+				if (c == '"') return sb.toString();
+				if (c != '\\')
+				{
+					sb.append(c);
+					continue;
+				}
+				c = next();
+				switch (c)
+				{
+					case '"': case '\\': case '/': sb.append(c); break;
+					case 'b': sb.append('\b'); break;
+					case 'f': sb.append('\f'); break;
+					case 'n': sb.append('\n'); break;
+					case 'r': sb.append('\r'); break;
+					case 't': sb.append('\t'); break;
+					case 'u':
+						if (position + 4 > json.length()) throw error();
+						try
+						{
+							sb.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+						}
+						catch (NumberFormatException e)
+						{
+							throw error();
+						}
+						position += 4;
+						break;
+					default: throw error();
+				}
+			}
+		}
+
+		String parseLiteral()
+		{
+			int start = position;
+			while (position < json.length() && ",} \t\r\n".indexOf(json.charAt(position)) < 0)
+			{
+				position++;
+			}
+			if (start == position) throw error();
+			String literal = json.substring(start, position);
+			return "null".equals(literal) ? null : literal;
+		}
+
+		void skipWhitespace()
+		{
+			while (position < json.length() && " \t\r\n".indexOf(json.charAt(position)) >= 0)
+			{
+				position++;
+			}
+		}
+
+		private char peek()
+		{
+			if (position >= json.length()) throw error();
+			return json.charAt(position);
+		}
+
+		private char next()
+		{
+			char c = peek();
+			position++;
+			return c;
+		}
+
+		private void expect(char c)
+		{
+			if (next() != c) throw error();
+		}
+
+		IllegalArgumentException error()
+		{
+			return new IllegalArgumentException("Invalid JSON at position " + position);
+		}
+	}
+}